@@ -3,6 +3,7 @@ package org.example;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Objects;
 
 
 public class Task implements Comparable<Task>{
@@ -12,6 +13,9 @@ public class Task implements Comparable<Task>{
     private LocalDate due;
     private Priority priority;
     private String category;
+    // Changed since the TaskManager last loaded or saved it, new tasks start out changed
+    private boolean dirty = true;
+    private TaskObserver observer;
 
     private static final String CSV_SEPARATOR = ",";
     private static final String REPLACEMENT_CHARACTER = "�";
@@ -44,7 +48,11 @@ public class Task implements Comparable<Task>{
         if (id <= 0) {
             throw new IllegalArgumentException("ID must be a positive value.");
         }
+        int oldId = this.id;
         this.id = id;
+        if (oldId != id) {
+            fireChanged(TaskField.ID, oldId);
+        }
     }
 
     // can text be
@@ -52,24 +60,83 @@ public class Task implements Comparable<Task>{
         if (text == null || text.trim().isEmpty()) {
             throw new IllegalArgumentException("Text cannot be null or empty,it is required");
         }
-        this.text = text.replace(REPLACEMENT_CHARACTER, ",");
+        String newText = text.replace(REPLACEMENT_CHARACTER, ",");
+        String oldText = this.text;
+        this.text = newText;
+        if (!newText.equals(oldText)) {
+            fireChanged(TaskField.TEXT, oldText);
+        }
     }
 
     public void setDue(LocalDate due) { //due可以为null置空，代表这个任务没有截止日期
+        LocalDate oldDue = this.due;
         this.due = due;
+        if (!Objects.equals(oldDue, due)) {
+            fireChanged(TaskField.DUE, oldDue);
+        }
     }
 
     public void setPriority(Priority priority) { //如果没有指定优先级，则Task可以视为LOW
-        this.priority = (priority != null) ? priority : Priority.LOW;
+        Priority newPriority = (priority != null) ? priority : Priority.LOW;
+        Priority oldPriority = this.priority;
+        this.priority = newPriority;
+        if (oldPriority != newPriority) {
+            fireChanged(TaskField.PRIORITY, oldPriority);
+        }
     }
 
     public void setCategory(String category) {  //如果该字段为空，则存储null在Task对象中，表示尚未分配类别。
-        this.category = (category == null || category.trim().isEmpty()) ? null : category;
+        String newCategory = (category == null || category.trim().isEmpty()) ? null : category;
+        String oldCategory = this.category;
+        this.category = newCategory;
+        if (!Objects.equals(oldCategory, newCategory)) {
+            fireChanged(TaskField.CATEGORY, oldCategory);
+        }
     }
 
 
     public void markCompleted(boolean completed) { //completed 不可能为空
+        boolean oldCompleted = this.completed;
         this.completed = completed;
+        if (oldCompleted != completed) {
+            fireChanged(TaskField.COMPLETED, oldCompleted);
+        }
+    }
+
+    /**
+     * Checks whether the task was changed since its TaskManager last loaded or saved it.
+     *
+     * @return true if the task has changes that are not saved.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    /**
+     * Sets the observer notified when a field changes, the TaskManager holding the task uses it to keep its
+     * indexes up to date.
+     *
+     * @param observer the observer, or null to stop notifying.
+     */
+    void setObserver(TaskObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Marks the task as changed and notifies the observer, if any.
+     *
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    private void fireChanged(TaskField field, Object oldValue) {
+        dirty = true;
+        if (observer != null) {
+            observer.taskChanged(this, field, oldValue);
+        }
     }
 
 
@@ -0,0 +1,28 @@
+package org.example;
+
+/**
+ * Receives the changes made to the tasks of a TaskManager as they happen, so a view can update only what changed.
+ */
+interface TaskChangeListener {
+
+    /**
+     * Called after a task was appended to the task list.
+     *
+     * @param task the added task.
+     */
+    void taskAdded(Task task);
+
+    /**
+     * Called after a field of a held task has been changed to a different value.
+     *
+     * @param task the changed task, it already holds the new value.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void taskChanged(Task task, TaskField field, Object oldValue);
+
+    /**
+     * Called after every task was replaced by the tasks read from the CSV file.
+     */
+    void tasksReloaded();
+}
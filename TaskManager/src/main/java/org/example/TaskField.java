@@ -0,0 +1,13 @@
+package org.example;
+
+/**
+ * Enumerates the fields of a Task that can be changed after it is created.
+ */
+public enum TaskField {
+    ID,
+    TEXT,
+    COMPLETED,
+    DUE,
+    PRIORITY,
+    CATEGORY
+}
@@ -1,7 +1,9 @@
 package org.example;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -13,11 +15,27 @@ public class TaskManager {
     private static final String CSV_DELIMITER = ",";
     private static final String REPLACEMENT_CHAR = "�";
     private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/dd/MM");
-    private List<Task> tasks;
+    // An unmodifiable snapshot, adds and reloads publish a new one instead of changing it, so a list handed out
+    // by getTasks never changes under its reader
+    private volatile List<Task> tasks = List.of();
     private Path csvPath;
+    private TextIndex textIndex = new TextIndex();
+    private static final int PAGE_CACHE_SIZE = 32;
+    // Recent pages keyed by query, page size, cursor and version, the least recently used page is evicted first
+    private final Map<List<Object>, TaskPage> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, TaskPage> eldest) {
+            return size() > PAGE_CACHE_SIZE;
+        }
+    };
+    private long version;
+    private Path loadedPath;
+    private FileTime loadedModifiedTime;
+    private long loadedSize;
+    private boolean tasksAdded;
+    private final List<TaskChangeListener> listeners = new ArrayList<>();
 
     public TaskManager(String csvFile) {
-        tasks = new ArrayList<>();
         this.csvPath = Paths.get(csvFile); //需要寻找位于项目的根目录的文件名为sampledata.csv的文件
         loadTasksFromCSV();
     }
@@ -27,7 +45,11 @@ public class TaskManager {
         Task newTask = new Task(text);
         int id = generateNewId();
         newTask.setId(id);
-        tasks.add(newTask);
+        version++;
+        index(textIndex, tasks.size(), newTask);
+        append(newTask);
+        tasksAdded = true;
+        fireTaskAdded(newTask);
         updateCSV();
     }
 
@@ -35,7 +57,11 @@ public class TaskManager {
     public void addTask(String text, boolean completed, LocalDate due, Priority priority, String category) {
         int id = generateNewId();
         Task newTask = new Task(id,text,completed,due,priority,category);
-        tasks.add(newTask);
+        version++;
+        index(textIndex, tasks.size(), newTask);
+        append(newTask);
+        tasksAdded = true;
+        fireTaskAdded(newTask);
         updateCSV();
     }
 
@@ -43,28 +69,103 @@ public class TaskManager {
      * 对tasks列表添加csv文件中所有line生成的task对象
      */
     public void loadTasksFromCSV() { //需要在tasks上进行add操作
-        tasks.clear();
+        // The new list and its index are built aside and published at once, readers see the old or the new tasks
+        List<Task> loaded = new ArrayList<>();
+        TextIndex loadedIndex = new TextIndex();
+        rememberFileState();
         try (BufferedReader br = Files.newBufferedReader(csvPath)) {
             String headerLine = br.readLine();
-            if (headerLine == null) { // 如果文件为空，则不往tasks中加入任何task实例
-                return;
-            }
             String line;
-            while ((line = br.readLine()) != null) {
+            while (headerLine != null && (line = br.readLine()) != null) { // 如果文件为空，则不往tasks中加入任何task实例
                 Task task = Task.readFromCsv(line);
                 if (task != null) { // 因为解析错误返回null将被忽略，双重确保在line不为空的情况下，fromCsv没有返回null,这里应该需要去考虑各种可能的不匹配解析错误的异常，后期需要再增加
-                    tasks.add(task);
+                    index(loadedIndex, loaded.size(), task);
+                    loaded.add(task);
+                    task.setDirty(false);
                 }
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
+        List<Task> old = tasks;
+        textIndex = loadedIndex;
+        tasks = Collections.unmodifiableList(loaded);
+        for (Task task : old) {
+            task.setObserver(null);
+        }
+        tasksAdded = false;
+        pageCache.clear();
+        version++;
+        for (TaskChangeListener listener : listeners) {
+            listener.tasksReloaded();
+        }
+    }
+
+    /**
+     * Registers a listener for the adds, field changes and reloads of the tasks.
+     *
+     * @param listener the listener.
+     */
+    void addChangeListener(TaskChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Unregisters a change listener.
+     *
+     * @param listener the listener.
+     */
+    void removeChangeListener(TaskChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireTaskAdded(Task task) {
+        for (TaskChangeListener listener : listeners) {
+            listener.taskAdded(task);
+        }
+    }
+
+    /**
+     * Adds the description of a task to a text index and keeps it there: when the text of the task changes, the
+     * task is moved to the words of its new text. Every change of the task is also passed on to the change listeners.
+     *
+     * @param index the index of the task list the task is added to.
+     * @param position the position of the task in that list.
+     * @param task the task.
+     */
+    private void index(TextIndex index, int position, Task task) {
+        index.add(position, task.getText());
+        task.setObserver((changed, field, oldValue) -> {
+            if (field == TaskField.TEXT) {
+                index.update(position, (String) oldValue, changed.getText());
+            }
+            for (TaskChangeListener listener : listeners) {
+                listener.taskChanged(changed, field, oldValue);
+            }
+        });
+    }
+
+    /**
+     * Publishes a new snapshot of the task list with a task appended. The list is copied, which is cheap for the
+     * one task at a time the GUI adds.
+     *
+     * @param task the task to append.
+     */
+    private void append(Task task) {
+        List<Task> appended = new ArrayList<>(tasks.size() + 1);
+        appended.addAll(tasks);
+        appended.add(task);
+        tasks = Collections.unmodifiableList(appended);
     }
 
     /**
      * 将目前的updated tasks中的task object toCVline 写入到文件中
      */
     protected void updateCSV() {
+        // Nothing to write if no task was added or changed and the file is still as it was loaded or saved
+        if (!tasksAdded && !isFileChanged() && tasks.stream().noneMatch(Task::isDirty)) {
+            return;
+        }
         try (BufferedWriter bw = Files.newBufferedWriter(csvPath)) {
             bw.write(String.join(CSV_DELIMITER, HEADER));
             bw.newLine();
@@ -74,6 +175,61 @@ public class TaskManager {
             }
         } catch (IOException e) {
             e.printStackTrace();
+            return;
+        }
+        tasksAdded = false;
+        for (Task task : tasks) {
+            task.setDirty(false);
+        }
+        // The GUI changes tasks through findTaskById and then saves, so every save starts a new version
+        version++;
+        rememberFileState();
+    }
+
+    /**
+     * Reloads the tasks only if the CSV file was changed by someone else since it was last loaded or saved.
+     *
+     * @return true if the tasks were reloaded.
+     */
+    public boolean reloadIfChanged() {
+        if (!isFileChanged()) {
+            return false;
+        }
+        loadTasksFromCSV();
+        return true;
+    }
+
+    /**
+     * Checks whether the CSV file was changed by someone else since it was last loaded or saved.
+     *
+     * @return true if the file was changed or cannot be checked.
+     */
+    private boolean isFileChanged() {
+        try {
+            return !csvPath.equals(loadedPath) || !Files.getLastModifiedTime(csvPath).equals(loadedModifiedTime)
+                    || Files.size(csvPath) != loadedSize;
+        } catch (IOException e) {
+            // cannot tell, reload to be safe
+            return true;
+        }
+    }
+
+    /**
+     * Gets the modification version of the task list, it increases on every add, load and save.
+     *
+     * @return the current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void rememberFileState() {
+        loadedPath = csvPath;
+        try {
+            loadedModifiedTime = Files.getLastModifiedTime(csvPath);
+            loadedSize = Files.size(csvPath);
+        } catch (IOException e) {
+            loadedModifiedTime = null;
         }
     }
 
@@ -206,6 +362,116 @@ public class TaskManager {
         return filteredTasks;
     }
 
+    /**
+     * Gets one page of a query in a stable order: the order of the query, ties broken by the order of the task list.
+     * Pages are cached by query, page size, cursor and version, so showing the same view again is served from the cache.
+     * Unsorted pages stop scanning once the page is full; sorted pages are selected with a bounded heap.
+     *
+     * @param query the predicates and ordering of the view, it must not have a limit.
+     * @param pageSize the maximum number of tasks in the page.
+     * @param after the cursor returned with the previous page, or null for the first page.
+     * @return the page of tasks and the cursor of the next page.
+     */
+    public TaskPage getPage(TaskQuery query, int pageSize, String after) {
+        List<Object> key = Arrays.asList(query.copy(), pageSize, after, version);
+        TaskPage page = pageCache.get(key);
+        if (page == null) {
+            page = computePage(query, pageSize, after);
+            pageCache.put(key, page);
+        }
+        return page;
+    }
+
+    private TaskPage computePage(TaskQuery query, int pageSize, String after) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive value.");
+        }
+        if (query.getLimit() != null) {
+            throw new IllegalArgumentException("A paged query cannot have a limit.");
+        }
+        // One snapshot for the whole page, a reload meanwhile does not mix two task lists
+        List<Task> tasks = this.tasks;
+        int anchor = (after != null) ? decodeCursor(tasks, after) : -1;
+        Comparator<Task> order = query.getOrder().getComparator();
+        // A text search only visits the tasks found by the inverted index
+        BitSet candidates = (query.getText() != null) ? textIndex.search(query.getText()) : null;
+        List<Integer> page = new ArrayList<>();
+        if (order == null) {
+            for (int i = nextCandidate(tasks, candidates, anchor + 1); i >= 0 && page.size() <= pageSize; i = nextCandidate(tasks, candidates, i + 1)) {
+                if (query.matches(tasks.get(i))) {
+                    page.add(i);
+                }
+            }
+        } else {
+            // Max-heap on (order, position) keeping the pageSize + 1 smallest positions after the anchor
+            Comparator<Integer> byPosition = (a, b) -> {
+                int result = order.compare(tasks.get(a), tasks.get(b));
+                return (result != 0) ? result : Integer.compare(a, b);
+            };
+            PriorityQueue<Integer> heap = new PriorityQueue<>(pageSize + 2, byPosition.reversed());
+            for (int i = nextCandidate(tasks, candidates, 0); i >= 0; i = nextCandidate(tasks, candidates, i + 1)) {
+                if (query.matches(tasks.get(i)) && (anchor < 0 || byPosition.compare(i, anchor) > 0)) {
+                    heap.add(i);
+                    if (heap.size() > pageSize + 1) {
+                        heap.poll();
+                    }
+                }
+            }
+            while (!heap.isEmpty()) {
+                page.add(0, heap.poll());
+            }
+        }
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            nextCursor = encodeCursor(tasks, page.get(pageSize - 1));
+        }
+        List<Task> shown = new ArrayList<>();
+        for (int position : page) {
+            shown.add(tasks.get(position));
+        }
+        return new TaskPage(shown, nextCursor);
+    }
+
+    /**
+     * Searches the task descriptions with the inverted text index.
+     *
+     * @param terms the words to search for, a word ending with '*' matches every word starting with it.
+     * @return a new list of the tasks containing every word, in list order.
+     */
+    public List<Task> search(String terms) {
+        List<Task> tasks = this.tasks;
+        BitSet positions = textIndex.search(terms);
+        List<Task> found = new ArrayList<>();
+        for (int i = positions.nextSetBit(0); i >= 0 && i < tasks.size(); i = positions.nextSetBit(i + 1)) {
+            found.add(tasks.get(i));
+        }
+        return found;
+    }
+
+    private int nextCandidate(List<Task> tasks, BitSet candidates, int from) {
+        int next = (candidates != null) ? candidates.nextSetBit(from) : from;
+        return (next >= 0 && next < tasks.size()) ? next : -1;
+    }
+
+    private String encodeCursor(List<Task> tasks, int position) {
+        String cursor = position + ":" + tasks.get(position).getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int decodeCursor(List<Task> tasks, String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            int position = Integer.parseInt(parts[0]);
+            if (position >= 0 && position < tasks.size() && tasks.get(position).getId() == Integer.parseInt(parts[1])) {
+                return position;
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid or expired cursor: " + cursor);
+    }
+
     public void setCsvFilePath(String path) {
         this.csvPath = Paths.get(path);
     }
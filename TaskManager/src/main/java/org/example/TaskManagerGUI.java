@@ -1,15 +1,12 @@
 package org.example;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.List;
 import org.jdesktop.swingx.JXDatePicker;
 
 
@@ -22,6 +19,8 @@ public class TaskManagerGUI extends JFrame {
     private JButton priorityButton;
     private JButton filterButton;
     private JButton sortButton;
+    private JButton searchButton;
+    private JTextField searchTextField;
     private JPopupMenu popupMenuPriority;
     private JPopupMenu popupMenuCompleted;
     private JPopupMenu popupMenuFilter;
@@ -38,6 +37,8 @@ public class TaskManagerGUI extends JFrame {
     private String selectedSort;
     private String selectedPriority;
     private String selectedCompleted;
+    private static final int PAGE_SIZE = 100;
+    private final TaskTableModel tableModel;
 
     public TaskManagerGUI(TaskManager taskManager) {
         this.taskManager = taskManager;
@@ -49,8 +50,11 @@ public class TaskManagerGUI extends JFrame {
         setLayout(new BorderLayout());
 
         //-------------Table for data---------------
-        taskTable = new JTable();
+        tableModel = new TaskTableModel(taskManager, PAGE_SIZE);
+        taskTable = new JTable(tableModel);
         JScrollPane scrollPane = new JScrollPane(taskTable);
+        JScrollBar verticalScrollBar = scrollPane.getVerticalScrollBar();
+        verticalScrollBar.addAdjustmentListener(e -> loadPageWhenScrolledToEnd(verticalScrollBar));
         add(scrollPane, BorderLayout.CENTER);
 
         //-------------Panel for selecting file path-------
@@ -164,6 +168,23 @@ public class TaskManagerGUI extends JFrame {
         popupMenuSort.add(menuDue);
         popupMenuSort.add(menuPriority);
 
+        //Search function implementation, searches the descriptions with the inverted index of TaskManager
+        JLabel searchLabel = new JLabel("Search");
+        filterPanel.add(searchLabel);
+        searchTextField = new JTextField();
+        searchTextField.setPreferredSize(new Dimension(150,30));
+        filterPanel.add(searchTextField);
+        searchButton = new JButton("Search");
+        ActionListener searchActionListener = new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateTable();
+            }
+        };
+        searchButton.addActionListener(searchActionListener);
+        searchTextField.addActionListener(searchActionListener);
+        filterPanel.add(searchButton);
+
         //Need two south panel,the other one is input panel below
         JPanel southPanel = new JPanel();
         southPanel.setLayout(new BoxLayout(southPanel, BoxLayout.Y_AXIS));
@@ -325,18 +346,18 @@ public class TaskManagerGUI extends JFrame {
     }
 
     private void updateTable() {
-        // Get all tasks from TaskManager
-        taskManager.loadTasksFromCSV();
-        List<Task> tasks = taskManager.getTasks();
+        // Reload the tasks only if the file changed, so repeated views are served from the page cache
+        taskManager.reloadIfChanged();
+        TaskQuery query = new TaskQuery();
 
         // Apply filtering if selected
         if (selectedfilter != null && !selectedfilter.equals("Default")) {
             switch (selectedfilter) {
                 case "Incomplete":
-                    tasks = taskManager.getTasksByCompletion(false);
+                    query.completed(false);
                     break;
                 case "Category":
-                    tasks = taskManager.getTasksByCategory(filterCategoryName);
+                    query.categoryIgnoreCase(filterCategoryName);
                     break;
                 default:
                     break;
@@ -347,31 +368,40 @@ public class TaskManagerGUI extends JFrame {
         if (selectedSort != null && !selectedSort.equals("Default")) {
             switch (selectedSort) {
                 case "Due":
-                    tasks.sort(Comparator.comparing(Task::getDue, Comparator.nullsLast(Comparator.naturalOrder())));
+                    query.orderBy(TaskOrder.DUE_DATE);
                     break;
                 case "Priority":
-                    tasks.sort(Comparator.comparing(Task::getPriority));
+                    query.orderBy(TaskOrder.PRIORITY);
                     break;
                 default:
                     break;
             }
         }
 
-        // Create a 2D array to store task data
-        Object[][] data = new Object[tasks.size()][6];
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            data[i][0] = task.getId();
-            data[i][1] = task.getText();
-            data[i][2] = task.isCompleted() ? "Yes" : "No";
-            data[i][3] = task.getDue();
-            data[i][4] = task.getPriority();
-            data[i][5] = task.getCategory();
+        // Apply searching if words are typed
+        String searchText = searchTextField.getText().trim();
+        if (!searchText.isEmpty()) {
+            try {
+                query.text(searchText);
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(this, e.getMessage());
+            }
+        }
+
+        // A new view starts from its first page, the same view only updates the rows that changed
+        if (query.equals(tableModel.getQuery())) {
+            tableModel.refresh();
+        } else {
+            tableModel.setQuery(query);
+        }
+    }
+
+    private void loadPageWhenScrolledToEnd(JScrollBar scrollBar) {
+        // Load the next page once the visible rows come within one page of the end of the table
+        int remaining = scrollBar.getMaximum() - (scrollBar.getValue() + scrollBar.getVisibleAmount());
+        if (tableModel.hasMoreRows() && remaining <= taskTable.getRowHeight() * PAGE_SIZE) {
+            tableModel.loadNextPage();
         }
-        String[] columns = {"ID", "Description", "Complete", "Due", "Priority", "Category"};
-        // Create a table model with data and column names
-        DefaultTableModel model = new DefaultTableModel(data, columns);
-        taskTable.setModel(model);
     }
 
     public static void main(String[] args) {
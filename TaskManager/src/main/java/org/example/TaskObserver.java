@@ -0,0 +1,16 @@
+package org.example;
+
+/**
+ * Receives a notification every time a field of an observed Task changes.
+ */
+interface TaskObserver {
+
+    /**
+     * Called after a field of the task has been changed to a different value.
+     *
+     * @param task the changed task, it already holds the new value.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void taskChanged(Task task, TaskField field, Object oldValue);
+}
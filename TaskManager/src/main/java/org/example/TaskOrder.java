@@ -0,0 +1,39 @@
+package org.example;
+
+import java.util.Comparator;
+
+/**
+ * Enumerates the orderings a TaskQuery can return its tasks in.
+ */
+public enum TaskOrder {
+    /** Keeps the order of the task list. */
+    NONE(null),
+    /** Sorts by due date (ascending), tasks without due date last. */
+    DUE_DATE(Comparator.comparing(Task::getDue, Comparator.nullsLast(Comparator.naturalOrder()))),
+    /** Sorts by priority (ascending). */
+    PRIORITY(Comparator.comparing(Task::getPriority)),
+    /** Sorts by due date then priority, as defined by Task.compareTo. */
+    NEXT_DUE(Comparator.naturalOrder()),
+    /** Sorts by priority (descending), then as defined by Task.compareTo. */
+    HIGHEST_PRIORITY(Comparator.comparing(Task::getPriority).reversed().thenComparing(Comparator.naturalOrder()));
+
+    private final Comparator<Task> comparator;
+
+    /**
+     * Constructs the TaskOrder instance by its comparator.
+     *
+     * @param comparator the comparator of the ordering, null to keep the list order.
+     */
+    TaskOrder(Comparator<Task> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Gets the comparator of this ordering.
+     *
+     * @return the comparator, or null if the order of the task list is kept.
+     */
+    public Comparator<Task> getComparator() {
+        return comparator;
+    }
+}
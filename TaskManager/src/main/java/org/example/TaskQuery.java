@@ -0,0 +1,318 @@
+package org.example;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * TaskQuery combines the predicates, ordering and limit of a view on the tasks of a TaskManager.
+ * Every predicate is optional; a query without predicates matches every task.
+ */
+public class TaskQuery {
+    private Boolean completed;
+    private String category;
+    private boolean ignoreCategoryCase;
+    private Priority priority;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    private String text;
+    private TaskOrder order = TaskOrder.NONE;
+    private Integer limit;
+
+    /**
+     * Only matches tasks with the given completion status.
+     *
+     * @param completed the completion status, null to match both.
+     * @return this query.
+     */
+    public TaskQuery completed(Boolean completed) {
+        this.completed = completed;
+        return this;
+    }
+
+    /**
+     * Only matches tasks with exactly the given category.
+     *
+     * @param category the category name, null or empty to match every category.
+     * @return this query.
+     */
+    public TaskQuery category(String category) {
+        this.category = (category == null || category.isEmpty()) ? null : category;
+        this.ignoreCategoryCase = false;
+        return this;
+    }
+
+    /**
+     * Only matches tasks with the given category, ignoring case.
+     *
+     * @param category the category name, null or empty to match every category.
+     * @return this query.
+     */
+    public TaskQuery categoryIgnoreCase(String category) {
+        category(category);
+        this.ignoreCategoryCase = true;
+        return this;
+    }
+
+    /**
+     * Only matches tasks with the given priority.
+     *
+     * @param priority the priority level, null to match every priority.
+     * @return this query.
+     */
+    public TaskQuery priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Only matches tasks due in the given range, both ends inclusive. Tasks without a due date never match a range.
+     *
+     * @param from the earliest due date, null for no lower bound.
+     * @param to the latest due date, null for no upper bound.
+     * @return this query.
+     * @throws IllegalArgumentException if from is after to.
+     */
+    public TaskQuery dueBetween(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Due range start must not be after its end.");
+        }
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    /**
+     * Only matches tasks whose description contains every word of the search. A word ending with '*' matches
+     * every word starting with it; words are compared ignoring case.
+     *
+     * @param terms the words to search for, null to match every description.
+     * @return this query.
+     * @throws IllegalArgumentException if terms contains no word.
+     */
+    public TaskQuery text(String terms) {
+        if (terms != null) {
+            TextIndex.parse(terms);
+        }
+        this.text = terms;
+        return this;
+    }
+
+    /**
+     * Sets the ordering of the result.
+     *
+     * @param order the ordering, null keeps the order of the task list.
+     * @return this query.
+     */
+    public TaskQuery orderBy(TaskOrder order) {
+        this.order = (order != null) ? order : TaskOrder.NONE;
+        return this;
+    }
+
+    /**
+     * Limits the number of tasks in the result.
+     *
+     * @param limit the maximum number of tasks, null for no limit.
+     * @return this query.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    public TaskQuery limit(Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be a positive value.");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Gets the completion status predicate.
+     *
+     * @return the completion status, or null if not filtered.
+     */
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Gets the category predicate.
+     *
+     * @return the category, or null if not filtered.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets whether the category predicate ignores case.
+     *
+     * @return true if the category is compared ignoring case.
+     */
+    public boolean isIgnoreCategoryCase() {
+        return ignoreCategoryCase;
+    }
+
+    /**
+     * Gets the priority predicate.
+     *
+     * @return the priority, or null if not filtered.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the earliest due date of the due range.
+     *
+     * @return the earliest due date, or null for no lower bound.
+     */
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    /**
+     * Gets the latest due date of the due range.
+     *
+     * @return the latest due date, or null for no upper bound.
+     */
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    /**
+     * Gets whether the query filters on a due range.
+     *
+     * @return true if a lower or upper due bound is set.
+     */
+    public boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    /**
+     * Gets the words the description is searched for.
+     *
+     * @return the search terms, or null if not filtered.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the ordering of the result.
+     *
+     * @return the ordering, never null.
+     */
+    public TaskOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Gets the limit of the result.
+     *
+     * @return the maximum number of tasks, or null for no limit.
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks a task against every predicate of this query.
+     *
+     * @param task the task to check.
+     * @return true if the task matches all predicates.
+     */
+    public boolean matches(Task task) {
+        return matches(task, null, null);
+    }
+
+    /**
+     * Checks a task as it was before one of its fields changed against every predicate of this query.
+     *
+     * @param task the changed task.
+     * @param changedField the changed field, null to check the task as it is.
+     * @param oldValue the value of the field before the change.
+     * @return true if the task matched all predicates before the change.
+     */
+    boolean matches(Task task, TaskField changedField, Object oldValue) {
+        boolean taskCompleted = (changedField == TaskField.COMPLETED) ? (Boolean) oldValue : task.isCompleted();
+        if (completed != null && taskCompleted != completed) {
+            return false;
+        }
+        if (category != null) {
+            String taskCategory = (changedField == TaskField.CATEGORY) ? (String) oldValue : task.getCategory();
+            if (taskCategory == null || !(ignoreCategoryCase ? category.equalsIgnoreCase(taskCategory) : category.equals(taskCategory))) {
+                return false;
+            }
+        }
+        Priority taskPriority = (changedField == TaskField.PRIORITY) ? (Priority) oldValue : task.getPriority();
+        if (priority != null && taskPriority != priority) {
+            return false;
+        }
+        if (hasDueRange()) {
+            LocalDate due = (changedField == TaskField.DUE) ? (LocalDate) oldValue : task.getDue();
+            if (due == null || (dueFrom != null && due.isBefore(dueFrom)) || (dueTo != null && due.isAfter(dueTo))) {
+                return false;
+            }
+        }
+        if (text != null && !TextIndex.matches(text, (changedField == TaskField.TEXT) ? (String) oldValue : task.getText())) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies this query, so later changes to either query do not affect the other.
+     *
+     * @return a new query with the same predicates, ordering and limit.
+     */
+    TaskQuery copy() {
+        TaskQuery copy = new TaskQuery();
+        copy.completed = completed;
+        copy.category = category;
+        copy.ignoreCategoryCase = ignoreCategoryCase;
+        copy.priority = priority;
+        copy.dueFrom = dueFrom;
+        copy.dueTo = dueTo;
+        copy.text = text;
+        copy.order = order;
+        copy.limit = limit;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskQuery)) {
+            return false;
+        }
+        TaskQuery other = (TaskQuery) o;
+        return ignoreCategoryCase == other.ignoreCategoryCase && Objects.equals(completed, other.completed)
+                && Objects.equals(category, other.category) && priority == other.priority
+                && Objects.equals(dueFrom, other.dueFrom) && Objects.equals(dueTo, other.dueTo)
+                && Objects.equals(text, other.text)
+                && order == other.order && Objects.equals(limit, other.limit);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(completed, category, ignoreCategoryCase, priority, dueFrom, dueTo, text, order, limit);
+    }
+
+    /**
+     * Overrides the toString method to print a query object.
+     */
+    @Override
+    public String toString() {
+        return "TaskQuery{" +
+                "completed=" + completed +
+                ", category='" + category + '\'' +
+                ", ignoreCategoryCase=" + ignoreCategoryCase +
+                ", priority=" + priority +
+                ", dueFrom=" + dueFrom +
+                ", dueTo=" + dueTo +
+                ", text='" + text + '\'' +
+                ", order=" + order +
+                ", limit=" + limit +
+                '}';
+    }
+}
@@ -0,0 +1,242 @@
+package org.example;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TaskTableModel shows the result of a TaskQuery in a JTable. It keeps the Task objects of the loaded rows and reads
+ * the cells from them when the table paints, so no row is copied. Rows are loaded a page at a time as the table
+ * scrolls. The model listens to the changes of the TaskManager: a change that keeps a task in the view at the same
+ * place updates its row only, and a task appended to an unsorted, fully loaded view is inserted as a row. Only
+ * changes that move rows, and reloads, make refresh query the view again.
+ */
+public class TaskTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID", "Description", "Complete", "Due", "Priority", "Category"};
+
+    private final TaskManager taskManager;
+    private final int pageSize;
+    private final List<Task> rows = new ArrayList<>();
+    private TaskQuery query;
+    private String nextCursor;
+    // set by a change the rows could not follow, refresh queries the view again
+    private boolean stale;
+
+    /**
+     * Constructs a new empty TaskTableModel, it shows tasks once a query is set.
+     *
+     * @param taskManager the task manager to read the tasks from.
+     * @param pageSize the number of rows loaded at a time.
+     */
+    public TaskTableModel(TaskManager taskManager, int pageSize) {
+        this.taskManager = taskManager;
+        this.pageSize = pageSize;
+        taskManager.addChangeListener(new TaskChangeListener() {
+            @Override
+            public void taskAdded(Task task) {
+                added(task);
+            }
+
+            @Override
+            public void taskChanged(Task task, TaskField field, Object oldValue) {
+                changed(task, field, oldValue);
+            }
+
+            @Override
+            public void tasksReloaded() {
+                stale = true;
+            }
+        });
+    }
+
+    /**
+     * Shows the result of another query, starting with its first page.
+     *
+     * @param query the predicates and ordering of the view, it must not have a limit.
+     */
+    public void setQuery(TaskQuery query) {
+        this.query = query.copy();
+        rows.clear();
+        nextCursor = null;
+        load(pageSize);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Gets the query of the view.
+     *
+     * @return the query, or null if none was set.
+     */
+    public TaskQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Loads the same view again, with at least as many rows as before, if a change moved rows or the tasks were
+     * reloaded. The rows both views have are reported as updated, and the rest as inserted or deleted. Nothing is
+     * done if the rows already followed every change.
+     */
+    public void refresh() {
+        if (query == null || !stale) {
+            return;
+        }
+        int oldCount = rows.size();
+        // one page as large as the rows shown, rounded up to whole pages so scrolling continues as before, and a
+        // page more if every row was shown, so added tasks show up
+        int count = Math.max(1, (oldCount + pageSize - 1) / pageSize) * pageSize + (nextCursor == null ? pageSize : 0);
+        rows.clear();
+        nextCursor = null;
+        load(count);
+        int common = Math.min(oldCount, rows.size());
+        if (common > 0) {
+            fireTableRowsUpdated(0, common - 1);
+        }
+        if (rows.size() > oldCount) {
+            fireTableRowsInserted(oldCount, rows.size() - 1);
+        } else if (rows.size() < oldCount) {
+            fireTableRowsDeleted(rows.size(), oldCount - 1);
+        }
+    }
+
+    /**
+     * Checks whether more rows follow the loaded ones.
+     *
+     * @return true if loadNextPage would add rows.
+     */
+    public boolean hasMoreRows() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Loads the next page of rows, if any, and reports them as inserted.
+     */
+    public void loadNextPage() {
+        if (nextCursor == null) {
+            return;
+        }
+        int first = rows.size();
+        load(pageSize);
+        if (rows.size() > first) {
+            fireTableRowsInserted(first, rows.size() - 1);
+        }
+    }
+
+    private void load(int count) {
+        TaskPage page = taskManager.getPage(query, count, nextCursor);
+        rows.addAll(page.getTasks());
+        nextCursor = page.getNextCursor();
+        stale = false;
+    }
+
+    /**
+     * Inserts an added task as the last row if the view keeps the list order and every row is loaded. A task added
+     * to a view with more pages to load shows up when they are loaded.
+     *
+     * @param task the added task.
+     */
+    private void added(Task task) {
+        if (query == null || stale || !query.matches(task)) {
+            return;
+        }
+        if (query.getOrder() != TaskOrder.NONE) {
+            stale = true;
+        } else if (nextCursor == null) {
+            rows.add(task);
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        }
+    }
+
+    /**
+     * Updates the row of a changed task if the task stays in the view at the same place, otherwise marks the view
+     * to be queried again.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    private void changed(Task task, TaskField field, Object oldValue) {
+        if (query == null || stale) {
+            return;
+        }
+        if (query.matches(task) != query.matches(task, field, oldValue) || (query.matches(task) && movesRows(field))) {
+            stale = true;
+            return;
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.get(row) == task) {
+                fireTableRowsUpdated(row, row);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a change of a field can move a task in the order of the view.
+     *
+     * @param field the changed field.
+     * @return true if the ordering compares the field.
+     */
+    private boolean movesRows(TaskField field) {
+        switch (query.getOrder()) {
+            case NONE:
+                return false;
+            case DUE_DATE:
+                return field == TaskField.DUE;
+            case PRIORITY:
+                return field == TaskField.PRIORITY;
+            default:
+                return field == TaskField.DUE || field == TaskField.PRIORITY;
+        }
+    }
+
+    /**
+     * Gets the task shown in a row.
+     *
+     * @param row the row index.
+     * @return the task.
+     */
+    public Task getTaskAt(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : Object.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Task task = rows.get(row);
+        switch (column) {
+            case 0:
+                return task.getId();
+            case 1:
+                return task.getText();
+            case 2:
+                return task.isCompleted() ? "Yes" : "No";
+            case 3:
+                return task.getDue();
+            case 4:
+                return task.getPriority();
+            case 5:
+                return task.getCategory();
+            default:
+                throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + COLUMNS.length + " columns");
+        }
+    }
+}
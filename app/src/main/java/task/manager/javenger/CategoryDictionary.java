@@ -0,0 +1,116 @@
+package task.manager.javenger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CategoryDictionary maps every distinct category to one canonical String instance and a small integer code. Tasks
+ * hold the code of their category instead of a String per row, and two categories from the same dictionary are
+ * equal exactly when their codes are equal, so filters and counters compare ints.
+ *
+ * <p>Codes are assigned in first-seen order and never reused, so they stay valid for the life of the dictionary.
+ * Every Task codes its category with the {@link #SHARED} dictionary, so a code means the same category in every
+ * TaskManager and in every query. Lookups take no lock, adding a category is synchronized.
+ */
+final class CategoryDictionary {
+    static final int NO_CATEGORY = -1;
+
+    /** The dictionary every Task codes its category with. */
+    static final CategoryDictionary SHARED = new CategoryDictionary();
+
+    private volatile String[] names = new String[16];
+    private volatile int size;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the code of a category, adding the category if it is new.
+     *
+     * @param category the category, null for uncategorized.
+     * @return the code, or NO_CATEGORY for null.
+     */
+    int code(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        Integer code = codes.get(category);
+        return (code != null) ? code : add(category);
+    }
+
+    /**
+     * Adds a category, unless another thread added it first.
+     *
+     * @param category the category.
+     * @return the code of the category.
+     */
+    private synchronized int add(String category) {
+        Integer code = codes.get(category);
+        if (code != null) {
+            return code;
+        }
+        String[] current = names;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = category;
+        // the name is published before its code, so a reader that finds the code finds the name
+        names = current;
+        size++;
+        codes.put(category, size - 1);
+        return size - 1;
+    }
+
+    /**
+     * Gets the code of a category without adding it.
+     *
+     * @param category the category.
+     * @return the code, or NO_CATEGORY if the category is null or unknown.
+     */
+    int find(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        return codes.getOrDefault(category, NO_CATEGORY);
+    }
+
+    /**
+     * Gets the canonical instance of a category for a code.
+     *
+     * @param code the code.
+     * @return the category, or null for NO_CATEGORY.
+     */
+    String name(int code) {
+        return (code == NO_CATEGORY) ? null : names[code];
+    }
+
+    /**
+     * Gets the canonical instance of a category, adding the category if it is new.
+     *
+     * @param category the category, null for uncategorized.
+     * @return the canonical instance, equal to the category.
+     */
+    String intern(String category) {
+        return name(code(category));
+    }
+
+    /**
+     * Gets the number of distinct categories.
+     *
+     * @return the number of codes assigned.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets all categories in code order.
+     *
+     * @return an unmodifiable list of the canonical instances.
+     */
+    List<String> names() {
+        int count = size;
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(names, count)));
+    }
+}
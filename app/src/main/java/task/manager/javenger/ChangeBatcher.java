@@ -0,0 +1,193 @@
+package task.manager.javenger;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChangeBatcher collects the changes made to the tasks of a TaskManager between two flushes and delivers them to
+ * the registered listeners as one batch. Changes are coalesced on the way: repeated changes of the same field
+ * become one event from the first old value to the last new value, a change back to the original value cancels
+ * out, changes of a task added in the same batch fold into its ADDED event, and a task added and removed in the
+ * same batch leaves no event. A reload replaces everything pending with a single RELOADED event. Nothing is
+ * recorded while no listener is registered.
+ *
+ * <p>Besides the flushes of its TaskManager, a batch can be bounded in time: with a window set, {@link #isDue()}
+ * tells when the oldest pending change has waited that long. The batcher owns no thread, so the window is checked
+ * when a change is recorded, and a quiet manager delivers its last changes at the next save or flush.
+ */
+class ChangeBatcher {
+
+    /**
+     * Identifies the pending event of a task, per field for field changes, field is null for ADDED and REMOVED, and
+     * both are null for RELOADED.
+     */
+    private record Key(Task task, TaskField field) {
+    }
+
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final LinkedHashMap<Key, TaskChangeEvent> pending = new LinkedHashMap<>();
+    private long windowNanos = -1;
+    private long firstPendingNanos;
+
+    /**
+     * Sets how long a change may wait for a flush.
+     *
+     * @param millis the time window in milliseconds, 0 to deliver every change at once, negative to wait for the
+     *               next flush however long it takes.
+     */
+    void setWindow(long millis) {
+        windowNanos = (millis >= 0) ? TimeUnit.MILLISECONDS.toNanos(millis) : -1;
+    }
+
+    /**
+     * Checks whether the oldest pending change has waited for the whole time window.
+     *
+     * @return true if a window is set and the pending changes should be flushed now.
+     */
+    boolean isDue() {
+        return windowNanos >= 0 && !pending.isEmpty() && System.nanoTime() - firstPendingNanos >= windowNanos;
+    }
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener the listener.
+     */
+    void addListener(TaskChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener.
+     */
+    void removeListener(TaskChangeListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Records that a task was added.
+     *
+     * @param task the added task.
+     */
+    void added(Task task) {
+        if (!listeners.isEmpty()) {
+            put(new Key(task, null), new TaskChangeEvent(TaskChangeEvent.Type.ADDED, task, null, null, null));
+        }
+    }
+
+    /**
+     * Records that every task was replaced by a reload, dropping the pending changes of the old tasks.
+     */
+    void reloaded() {
+        if (!listeners.isEmpty()) {
+            pending.clear();
+            put(new Key(null, null), new TaskChangeEvent(TaskChangeEvent.Type.RELOADED, null, null, null, null));
+        }
+    }
+
+    /**
+     * Records that a task was removed, dropping the pending changes of the task.
+     *
+     * @param task the removed task.
+     */
+    void removed(Task task) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TaskChangeEvent added = pending.remove(new Key(task, null));
+        for (TaskField field : TaskField.values()) {
+            pending.remove(new Key(task, field));
+        }
+        if (added == null) {
+            put(new Key(task, null), new TaskChangeEvent(TaskChangeEvent.Type.REMOVED, task, null, null, null));
+        }
+    }
+
+    /**
+     * Records that a field of a task changed.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void changed(Task task, TaskField field, Object oldValue) {
+        if (listeners.isEmpty() || pending.containsKey(new Key(task, null))) {
+            return;
+        }
+        Key key = new Key(task, field);
+        TaskChangeEvent previous = pending.get(key);
+        Object firstOldValue = (previous != null) ? previous.getOldValue() : oldValue;
+        Object newValue = valueOf(task, field);
+        if (Objects.equals(firstOldValue, newValue)) {
+            pending.remove(key);
+            return;
+        }
+        TaskChangeEvent.Type type = (field == TaskField.COMPLETED) ? TaskChangeEvent.Type.COMPLETED : TaskChangeEvent.Type.FIELD_CHANGED;
+        put(key, new TaskChangeEvent(type, task, field, firstOldValue, newValue));
+    }
+
+    /**
+     * Delivers the pending changes to every listener as one batch. A listener that throws does not keep the batch
+     * from the other listeners.
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<TaskChangeEvent> batch = List.copyOf(pending.values());
+        pending.clear();
+        for (TaskChangeListener listener : listeners) {
+            try {
+                listener.tasksChanged(batch);
+            } catch (RuntimeException e) {
+                System.err.println("A task change listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces a pending event, noting when the batch started.
+     *
+     * @param key the key of the event.
+     * @param event the event.
+     */
+    private void put(Key key, TaskChangeEvent event) {
+        if (pending.isEmpty()) {
+            firstPendingNanos = System.nanoTime();
+        }
+        pending.put(key, event);
+    }
+
+    /**
+     * Gets the current value of a field of a task.
+     *
+     * @param task the task.
+     * @param field the field.
+     * @return the value, boxed.
+     */
+    private static Object valueOf(Task task, TaskField field) {
+        switch (field) {
+            case ID:
+                return task.getId();
+            case TEXT:
+                return task.getText();
+            case COMPLETED:
+                return task.isCompleted();
+            case DUE:
+                return task.getDue();
+            case PRIORITY:
+                return task.getPriority();
+            default:
+                return task.getCategory();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package task.manager.javenger;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+/**
+ * Command is one parsed command of a command line, ready to run against a TaskManager.
+ * Commands are built by CommandParser, which has already validated all their arguments.
+ */
+interface Command {
+
+    /**
+     * Runs the command.
+     *
+     * @param taskManager the task manager of the session.
+     * @param out the stream the command prints to.
+     */
+    void execute(TaskManager taskManager, PrintStream out);
+
+    /**
+     * Checks whether the command only reads the tasks.
+     *
+     * @return true if the command never changes a task.
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Prints the description of every command, or of one: --help [command]. It needs no task manager.
+     *
+     * @param command the command to describe, or null for all of them.
+     */
+    record Help(String command) implements Command {
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            CommandLine.printHelp(command, out);
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+    }
+
+    /**
+     * Adds a new task: --add-Task with its --Task-text, --completed, --due, --priority and --category options.
+     */
+    final class AddTask implements Command {
+        String text;
+        boolean completed;
+        LocalDate due;
+        Priority priority;
+        String category;
+
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            taskManager.addTask(text, completed, due, priority, category);
+        }
+    }
+
+    /**
+     * Marks tasks as completed: --complete-Task.
+     *
+     * @param selection the tasks, by ID.
+     */
+    record CompleteTask(TaskSelection selection) implements Command {
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            taskManager.completeTasks(selection);
+        }
+    }
+
+    /**
+     * Changes many tasks at once: --update-Tasks with its --if-incomplete, --if-category and --if-priority filters
+     * and its --set-completed, --set-category, --set-priority and --shift-due changes.
+     */
+    final class UpdateTasks implements Command {
+        TaskSelection selection;
+        TaskQuery filter = new TaskQuery();
+        boolean complete;
+        String category;
+        Priority priority;
+        Integer shiftDays;
+
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            int updated = taskManager.updateTasks(selection.matching(filter), task -> {
+                if (complete) {
+                    task.markCompleted(true);
+                }
+                if (category != null) {
+                    task.setCategory(category);
+                }
+                if (priority != null) {
+                    task.setPriority(priority);
+                }
+                if (shiftDays != null) {
+                    TaskManager.shiftDue(task, shiftDays);
+                }
+            });
+            out.println(updated + " task(s) updated.");
+        }
+    }
+
+    /**
+     * Displays tasks: --display with its --show-incomplete, --show-category, --sort-by-date, --sort-by-priority,
+     * --limit, --page-size, --after and --format options.
+     */
+    final class Display implements Command {
+        boolean showIncomplete;
+        String category;
+        boolean sortByDate;
+        boolean sortByPriority;
+        Integer limit;
+        Integer pageSize;
+        String after;
+        TaskFormat format = TaskFormat.PLAIN;
+
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            TaskQuery query = TaskManager.displayQuery(showIncomplete, category, sortByDate, sortByPriority);
+            TaskRenderer renderer = new TaskRenderer(out, format);
+            if (pageSize != null) {
+                TaskPage page = taskManager.getPage(query, pageSize, after);
+                renderer.render(page.getTasks());
+                renderer.flush();
+                if (page.getNextCursor() != null) {
+                    out.println("Next page: --after " + page.getNextCursor());
+                }
+            } else {
+                renderer.render(taskManager.query(query.limit(limit)));
+                renderer.flush();
+            }
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+    }
+
+    /**
+     * Displays the tasks whose description contains every given word: --search.
+     *
+     * @param words the words to search for.
+     */
+    record Search(String words) implements Command {
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            TaskRenderer renderer = new TaskRenderer(out, TaskFormat.PLAIN);
+            renderer.render(taskManager.search(words));
+            renderer.flush();
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+    }
+
+    /**
+     * Displays the aggregate counters: --stats.
+     */
+    record Stats() implements Command {
+        @Override
+        public void execute(TaskManager taskManager, PrintStream out) {
+            out.println(taskManager.getStats());
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+    }
+}
@@ -3,15 +3,21 @@
  */
 package task.manager.javenger;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
-
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-
 /**
  * Class for executing use command
  */
@@ -38,7 +44,7 @@ public class CommandLine {
         
         commandMap.put("category <a category name>", "(Optional) Sets the category of a new Task. The value can be any String. Categories do not need to be pre-defined.");
         
-        commandMap.put("complete-Task <id>", "Mark the Task with the provided ID as complete.");
+        commandMap.put("complete-Task <id>", "Mark the Task with the provided ID as complete. Several Tasks can be given as a comma-separated list of IDs and ranges of IDs, for example 1,4,10-20, or all.");
         
         commandMap.put("display", "Display Tasks. If none of the following optional arguments are provided, displays all Tasks.");
         
@@ -49,6 +55,44 @@ public class CommandLine {
         commandMap.put("sort-by-date", "(Optional) If --display is provided, sort the list of Tasks by date order (ascending). Cannot be combined with --sort-bypriority.");
         
         commandMap.put("sort-by-priority", "(Optional) If --display is provided, sort the list of Tasks by priority (ascending). Cannot be combined with --sort-by-date.");
+
+        commandMap.put("limit <N>", "(Optional) If --display is provided, only the first N Tasks of the (sorted) list are displayed.");
+
+        commandMap.put("format <plain|table|csv|ndjson>", "(Optional) If --display is provided, display the Tasks one per line as text (plain, the default), as an aligned table, as CSV with a header, or as one JSON object per line.");
+
+        commandMap.put("search <words>", "Display the Tasks whose description contains every given word, ignoring case. A word ending with * matches every word starting with it.");
+
+        commandMap.put("stats", "Display the number of Tasks in total, completed, incomplete and overdue, per priority and per category.");
+
+        commandMap.put("page-size <N>", "(Optional) If --display is provided, display the Tasks in pages of N Tasks and print the cursor of the next page. Cannot be combined with --limit.");
+
+        commandMap.put("batch [<path/to/file>]", "Run the commands of a script, one command line per line, instead of prompting, for example: --csv-file tasks.csv --batch script.txt. The script is read from standard input if no file is given. Blank lines and lines starting with # are skipped. All changes are written once at the end, a failing command is reported with its line number and skipped.");
+
+        commandMap.put("daemon <path/to/socket>", "Keep the Tasks of --csv-file in memory and run the commands sent to the given Unix domain socket, for example: --csv-file tasks.csv --daemon /tmp/tasks.sock. Runs until stopped.");
+
+        commandMap.put("connect <path/to/socket> [commands]", "Send the commands to a running --daemon and print its answer, for example: --connect /tmp/tasks.sock --display --limit 5. Without commands, every line of the standard input is sent.");
+
+        commandMap.put("http <port>", "Serve the Tasks of --csv-file as a JSON API on the given port, for example: --csv-file tasks.csv --http 8080. GET /tasks lists, GET /tasks/<id> gets, POST /tasks adds and POST /tasks/<id>/complete completes Tasks, GET /stats gets the counters. Runs until stopped.");
+
+        commandMap.put("off-heap-text", "(Optional) With --batch, --daemon or --http, store the descriptions of the Tasks outside the Java heap, for example: --csv-file tasks.csv --daemon /tmp/tasks.sock --off-heap-text. Keeps the heap of a server holding many Tasks small, at the cost of decoding a description each time it is read.");
+
+        commandMap.put("after <cursor>", "(Optional) If --display and --page-size are provided, display the page following the given cursor.");
+
+        commandMap.put("update-Tasks <ids>", "Change many Tasks at once and print how many were changed. Tasks are given as a comma-separated list of IDs and ranges of IDs, for example 1,4,10-20, or all. At least one of --set-completed, --set-category, --set-priority or --shift-due must follow, and --if-incomplete, --if-category or --if-priority only change the matching Tasks, for example: --update-Tasks all --if-category Sprint --set-completed.");
+
+        commandMap.put("set-completed", "(Optional) If --update-Tasks is provided, mark the Tasks as complete.");
+
+        commandMap.put("set-category <a category name>", "(Optional) If --update-Tasks is provided, move the Tasks to the given category.");
+
+        commandMap.put("set-priority <1, 2, or 3>", "(Optional) If --update-Tasks is provided, set the priority of the Tasks.");
+
+        commandMap.put("shift-due <days>", "(Optional) If --update-Tasks is provided, move the due dates of the Tasks by the given number of days, earlier if negative. Tasks without a due date are left without one.");
+
+        commandMap.put("if-incomplete", "(Optional) If --update-Tasks is provided, only change the incomplete Tasks.");
+
+        commandMap.put("if-category <a category name>", "(Optional) If --update-Tasks is provided, only change the Tasks of the given category.");
+
+        commandMap.put("if-priority <1, 2, or 3>", "(Optional) If --update-Tasks is provided, only change the Tasks of the given priority.");
     }
 
     /**
@@ -74,25 +118,32 @@ public class CommandLine {
     public static void runHelpCommand(String[] commands) {
         if (commands.length == 1 && commands[0].startsWith("help")) {
             String[] parts = commands[0].split(" ", 2);
+            printHelp(parts.length > 1 ? parts[1] : null, System.out);
+        } else {
+            throw new IllegalArgumentException("Exception: --help Command must be the first command and only on its own.");
+        }
+    }
 
-            if (parts.length > 1) {
-                //searchCommand is the command following "--help "
-                String searchCommand = parts[1];
-            
-                //when command in --help <command> is valid.
-                if (commandMap.containsKey(searchCommand)){
-                    System.out.println(commandMap.get(searchCommand));
-                } else {
-                    throw new IllegalArgumentException("Exception: <command> in --help <command> not valid");
-                }
+    /**
+     * Prints the description of every command, or of one command.
+     *
+     * @param command the command following "--help ", or null for all commands.
+     * @param out the stream to print to.
+     * @throws IllegalArgumentException if the command is not known.
+     */
+    static void printHelp(String command, PrintStream out) {
+        if (command != null) {
+            //when command in --help <command> is valid.
+            if (commandMap.containsKey(command)){
+                out.println(commandMap.get(command));
             } else {
-                //when the command is "--help".
-                for (Map.Entry<String, String> entry : commandMap.entrySet()) {
-                    System.out.println("--" + entry.getKey() + ":    " + entry.getValue());
-                }
+                throw new IllegalArgumentException("Exception: <command> in --help <command> not valid");
             }
         } else {
-            throw new IllegalArgumentException("Exception: --help Command must be the first command and only on its own.");
+            //when the command is "--help".
+            for (Map.Entry<String, String> entry : commandMap.entrySet()) {
+                out.println("--" + entry.getKey() + ":    " + entry.getValue());
+            }
         }
     }
 
@@ -143,46 +194,221 @@ public class CommandLine {
         return path;
     }
 
-    private static int addTaskIndex = -1;
+    /**
+     * The commands of one line of a batch script.
+     *
+     * @param lineNumber the line number in the script, starting at 1.
+     * @param commands the parsed commands.
+     */
+    private record ScriptLine(int lineNumber, List<Command> commands) {
+    }
 
     /**
-     * Helper method to find whether --add-Task command exist before current command
-     * Back traverse
-     * 
-     * @param start      the earliest command
-     * @param end        the latest command
-     * @param commandarr command array for traverse
-     * @return true if --add-Task is found and false if not
+     * Runs a batch script: --csv-file <path/to/file> --batch [<path/to/file>]. The whole script is parsed before
+     * anything runs, then all its commands run as one batch, so the CSV file is written once. Lines that do not
+     * parse and commands that fail are reported to the standard error with their line number and skipped, the rest
+     * of the script still runs. A failed write of the CSV file counts as one more error.
+     *
+     * @param args the program arguments.
+     * @return the number of lines and commands that failed, plus one if the tasks could not be written.
      */
-    public static boolean findAddTask(int start, int end, String[] commandarr) {
-        // Iterate through the command array from the current to the front
-        for (int i = end - 1; i >= start; i--) {
-            if (commandarr[i].trim().equals("add-Task")) {
-                addTaskIndex = i;
-                return true;
+    public static int runBatch(String[] args) {
+        String path = null;
+        String script = null;
+        boolean batch = false;
+        boolean offHeapText = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--csv-file") && i + 1 < args.length) {
+                path = args[++i];
+            } else if (args[i].equals("--off-heap-text")) {
+                offHeapText = true;
+            } else if (args[i].equals("--batch")) {
+                batch = true;
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    script = args[++i];
+                }
+            } else {
+                throw new IllegalArgumentException("Exception: command not valid");
             }
         }
-        return false;
+        if (!batch) {
+            throw new IllegalArgumentException("Exception: Command '--batch [<path/to/file>]' not found.");
+        }
+        if (path == null) {
+            throw new IllegalArgumentException("Exception: Command '--csv-file <path/to/file>' not found.");
+        }
+
+        List<ScriptLine> lines = new ArrayList<>();
+        int errors = 0;
+        try (BufferedReader reader = script != null
+                ? Files.newBufferedReader(Paths.get(script))
+                : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    lines.add(new ScriptLine(lineNumber, CommandParser.parse(trimmed)));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Line " + lineNumber + ": " + e.getMessage());
+                    errors++;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Exception: cannot read the script " + script + ": " + e.getMessage());
+        }
+
+        TaskManager taskManager = new TaskManager(path);
+        taskManager.setOffHeapText(offHeapText);
+        int[] failed = new int[1];
+        taskManager.runBatch(() -> {
+            for (ScriptLine line : lines) {
+                for (Command command : line.commands()) {
+                    try {
+                        command.execute(taskManager, System.out);
+                    } catch (RuntimeException e) {
+                        System.err.println("Line " + line.lineNumber() + ": " + e.getMessage());
+                        failed[0]++;
+                    }
+                }
+            }
+        });
+        // a failed write leaves the tasks modified, updateCSV has reported the cause
+        if (taskManager.isModified()) {
+            System.err.println("Exception: the tasks could not be written to " + path);
+            failed[0]++;
+        }
+        return errors + failed[0];
     }
 
     /**
-     * Helper method to find whether duplicate command exists (this may cause
-     * confusion)
-     * Back traverse
-     * 
-     * @param start      the earliest command
-     * @param end        the latest command
-     * @param commandarr command array for traverse
-     * @param command    current command in regex
-     * @return true if command duplicates and false if not
+     * The arguments of a server mode.
+     *
+     * @param csvFile the path of the CSV file.
+     * @param value the value of the option of the mode.
+     * @param offHeapText true to store the task texts off-heap.
      */
-    public static boolean findDuplicateTask(int start, int end, String[] commandarr, String command) {
-        for (int i = end - 1; i > start; i--) {
-            if (commandarr[i].trim().matches(command)) {
-                return true;
+    private record ServerOptions(String csvFile, String value, boolean offHeapText) {
+        ConcurrentTaskManager createTaskManager() {
+            ConcurrentTaskManager taskManager = new ConcurrentTaskManager(csvFile);
+            taskManager.setOffHeapText(offHeapText);
+            return taskManager;
+        }
+    }
+
+    /**
+     * Runs a daemon that keeps the tasks in memory: --csv-file <path/to/file> --daemon <path/to/socket>
+     * [--off-heap-text]. The daemon runs until the process is stopped.
+     *
+     * @param args the program arguments.
+     * @throws IOException if the socket cannot be bound.
+     */
+    public static void runDaemon(String[] args) throws IOException {
+        ServerOptions options = serverOptions(args, "--daemon", "Exception: Command '--daemon <path/to/socket>' path is missing.");
+        String socket = options.value();
+        TaskDaemon daemon = new TaskDaemon(options.createTaskManager(), Paths.get(socket));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                daemon.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }));
+        System.out.println("Listening on " + socket);
+        daemon.serve();
+    }
+
+    /**
+     * Runs the HTTP JSON API: --csv-file <path/to/file> --http <port> [--off-heap-text]. The server runs until the
+     * process is stopped.
+     *
+     * @param args the program arguments.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void runHttpServer(String[] args) throws IOException {
+        ServerOptions options = serverOptions(args, "--http", "Exception: Command '--http <port>' port is missing.");
+        int port;
+        try {
+            port = Integer.parseInt(options.value());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Exception: Command '--http <port>' port is not valid.");
+        }
+        TaskHttpServer server = new TaskHttpServer(options.createTaskManager(), new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+        server.start();
+        System.out.println("Listening on http://localhost:" + server.getAddress().getPort() + "/tasks");
+    }
+
+    /**
+     * Reads the arguments of a server mode: --csv-file <path/to/file> and the option of the mode, each with one
+     * value, and the optional --off-heap-text.
+     *
+     * @param args the program arguments.
+     * @param option the option of the mode.
+     * @param missing the message of the exception if the option has no value.
+     * @return the CSV file path, the value of the option and whether texts are stored off-heap.
+     */
+    private static ServerOptions serverOptions(String[] args, String option, String missing) {
+        String path = null;
+        String value = null;
+        boolean offHeapText = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--off-heap-text")) {
+                offHeapText = true;
+            } else if (i + 1 == args.length || args[i + 1].equals("--off-heap-text")) {
+                throw new IllegalArgumentException(args[i].equals(option) ? missing : "Exception: command not valid");
+            } else if (args[i].equals("--csv-file")) {
+                path = args[++i];
+            } else if (args[i].equals(option)) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Exception: command not valid");
             }
         }
-        return false;
+        if (path == null) {
+            throw new IllegalArgumentException("Exception: Command '--csv-file <path/to/file>' not found.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException(missing);
+        }
+        return new ServerOptions(path, value, offHeapText);
+    }
+
+    /**
+     * Sends commands to a running daemon: --connect <path/to/socket> [commands]. The commands following the socket
+     * are sent as one command line, without them every line of the standard input is sent.
+     *
+     * @param args the program arguments.
+     * @return the number of commands that failed.
+     * @throws IOException if no daemon listens on the socket or the connection is lost.
+     */
+    public static int runClient(String[] args) throws IOException {
+        if (args.length < 2 || !args[0].equals("--connect")) {
+            throw new IllegalArgumentException("Exception: Command '--connect <path/to/socket>' must come first.");
+        }
+        List<String> lines = new ArrayList<>();
+        if (args.length > 2) {
+            lines.add(String.join(" ", Arrays.asList(args).subList(2, args.length)));
+        } else {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    lines.add(line);
+                }
+            }
+        }
+        int errors = 0;
+        try (TaskDaemon.Client client = new TaskDaemon.Client(Paths.get(args[1]))) {
+            for (String line : lines) {
+                errors += client.send(line, System.out, System.err);
+            }
+        }
+        return errors;
     }
 
     /**
@@ -190,8 +416,26 @@ public class CommandLine {
      * @param args user input of commands in string format
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Daemon, client or batch mode, the exit status tells scripts whether every command succeeded
+            try {
+                List<String> options = Arrays.asList(args);
+                if (options.contains("--daemon")) {
+                    runDaemon(args);
+                } else if (options.contains("--http")) {
+                    runHttpServer(args);
+                } else if ((options.contains("--connect") ? runClient(args) : runBatch(args)) > 0) {
+                    System.exit(1);
+                }
+            } catch (IllegalArgumentException | IOException e) {
+                System.err.println(e.getMessage());
+                System.exit(2);
+            }
+            return;
+        }
 
-        TaskManager taskManager;
+        // One manager for the whole session, reloaded only when the CSV file is changed by someone else
+        TaskManager taskManager = null;
         Scanner scanner = new Scanner(System.in);
         //initialize path with null
         String path = null;
@@ -204,252 +448,45 @@ public class CommandLine {
                 System.out.println("Bye bye");
                 return;
             }
-            String[] commands = input.split("--");
-
-
-            //remove null string at index 0.
-            commands = removeFirstEmptyString(commands);
-
-
-            //if help command exist, execute help command based on whether parameter command is inputed.
+            //Parse the whole line first, so an invalid option leaves the tasks untouched.
+            List<Command> lineCommands;
             try {
-                if (checkHelpCommandExist(commands)) {
-                    runHelpCommand(commands); 
+                lineCommands = CommandParser.parse(input);
+
+                //--help needs no CSV file, it is alone on its line.
+                if (lineCommands.size() == 1 && lineCommands.get(0) instanceof Command.Help help) {
+                    help.execute(taskManager, System.out);
                     continue;
                 }
 
                 //Check if input command includes exactly one --csv-file <path/to/file>.
                 if (path==null){
-                    path = checkCSVFileCommand(commands);
+                    path = checkCSVFileCommand(removeFirstEmptyString(input.split("--")));
                     System.out.println(); // Empty line
                     System.out.println("Command '--csv-file <path/to/file>' successfully executed. Path set to" + path);
                     System.out.println(); // Empty line                    
                 }
-                taskManager = new TaskManager(path);
+                if (taskManager == null) {
+                    taskManager = new TaskManager(path);
+                } else {
+                    taskManager.reloadIfChanged();
+                }
             } catch (IllegalArgumentException e) {
                 System.err.println(e.getMessage());
                 continue;
             }
 
-
-            //Start loop for checking individual commands.
+            //The line runs as one transaction: it is written once, or undone entirely if a command fails.
             try {
-                boolean addTaskFound;
-
-                for(int i = 0; i < commands.length;i++){
-                    String[] parts = commands[i].trim().split(" ",2);
-                    String command = parts[0];
-                    // System.out.println(Arrays.toString(part));
-                    switch (command) {
-                        case "display":
-                            int count = 0;
-                            boolean showIncomplete = false;
-                            boolean sortByDate = false;
-                            boolean sortByPriority = false;
-                            String category = null;
-                            
-                            for (int j=i+1; j<commands.length; j++) {
-                                commands[j] = commands[j].trim();
-                                if (commands[j].equals("show-incomplete")) { 
-                                    showIncomplete = true;
-                                }
-
-                                
-                                else if(commands[j].startsWith("show-category")) {
-                                    String[] categoryArr = commands[j].trim().split(" ");
-                                    if(categoryArr.length != 2) {
-                                        throw new IllegalArgumentException("Category is missing.");
-                                    }
-                                    category = categoryArr[1];
-                                }
-
-                                else if(commands[j].equals("sort-by-date")) {
-                                    sortByDate = true;
-                                }
-
-                                else if(commands[j].equals("sort-by-priority")) {
-                                    sortByPriority = true;
-                                }
-                                count++;
-                            }
-
-
-                            taskManager.displayTasks(showIncomplete, category, sortByDate, sortByPriority);
-                            i += count;
-                            break;
-                        case "csv-file":
-                            break;
-
-                        case "add-Task":
-                        // Find --add-Task has argument or not
-                        if (parts.length > 1) {
-                            throw new IllegalArgumentException("Too many arguments for --add-Task command");
-                        }
-
-                            // --add-Task should have --Task-text in the following commands
-                            if (i + 1 < commands.length) {
-                                for (int j = i + 1; j < commands.length; j++) {
-                                    // Iterate through the following command to find --Task-text
-                                    // Should find --Task-text before the next --add-Task
-                                    if (commands[j].equals("add-Task")) {
-                                        throw new IllegalArgumentException("Missing Task description for --add-Task option");
-                                    }
-
-
-                                    // Find trailing --Task--text and should have argument: description
-                                    if (commands[j].trim().matches("^Task-text\\s*.*")) {
-                                        String[] text = commands[j].split("Task-text\\s+");
-                                        if (text.length >= 2) {
-                                            String taskDescription = text[1];
-                                            taskManager.addTask(taskDescription);
-                                            break;
-                                        } else {
-                                            throw new IllegalArgumentException("Missing task description");
-                                        }
-
-                                    }
-                                }
-                            } else {
-                                throw new IllegalArgumentException("Missing Task description for --add-Task option");
-                            }
-                            break;
-
-                        case "Task-text":
-                            // --Task-text should have --add-Task before it
-                            addTaskFound = CommandLine.findAddTask(0, i, commands);
-                            if (!addTaskFound) {
-                                throw new IllegalArgumentException("Missing --add-Task before --Task-text");
-                            }
-
-                            // --Task-text should not duplicate until the next --add-Task command
-                            if (CommandLine.findDuplicateTask(addTaskIndex, i, commands, "^Task-text\\s*.*")) {
-                                throw new IllegalArgumentException("Duplicate --Task-text command");
-                            }
-                            break;
-                        case "completed":
-                            // --completed should have --add-Task before it
-                            addTaskFound = CommandLine.findAddTask(0, i, commands);
-                            if (!addTaskFound) {
-                                throw new IllegalArgumentException("Missing --add-Task before --completed");
-                            }
-
-                            // --completed should not duplicate until the next --add-Task command
-                            if (CommandLine.findDuplicateTask(addTaskIndex, i, commands, "^completed\\s*")) {
-                                throw new IllegalArgumentException("Duplicate --completed command");
-                            }
-
-
-                            // --completed should not any argument
-                            if (parts.length > 1) {
-                                throw new IllegalArgumentException("Too many arguments for --completed command");
-                            }
-                            taskManager.findTaskById(taskManager.getCurrentMaxID()).markCompleted(true);
-                            break;
-                        case "due":
-                            // --due should have --add-Task before it
-                            addTaskFound = CommandLine.findAddTask(0, i, commands);
-                            if (!addTaskFound) {
-                                throw new IllegalArgumentException("Missing --add-Task before --due");
-                            }
-
-
-                            // --due should not duplicate until the next --add-Task command
-                            if (CommandLine.findDuplicateTask(addTaskIndex, i, commands, "^due\\s*.*")) {
-                                throw new IllegalArgumentException("Duplicate --due command");
-                            }
-
-                            // --due should have 1 argument
-                            if (parts.length <= 1) {
-                                throw new IllegalArgumentException("Missing date yyyy-MM-dd for --due option");
-                            }
-
-                            // --due argument should have the correct format yyyy--mm-dd
-                            try {
-                                // boolean taskDate = parts[1].matches("due\\s+(?=\\d{4}-\\d{2}-\\d{2}).*");
-                                LocalDate dueDate = LocalDate.parse(parts[1]);
-                                taskManager.findTaskById(taskManager.getCurrentMaxID()).setDue(dueDate);
-                            } catch (DateTimeParseException e) {
-                                throw new IllegalArgumentException(
-                                        "Invalid input format or missing date. Expected format: due yyyy-MM-dd");
-                            }
-                            
-                            break;
-                        case "priority":
-                            // --priority should have --add-Task before it
-                            addTaskFound = CommandLine.findAddTask(0, i, commands);
-                            if (!addTaskFound) {
-                                throw new IllegalArgumentException("Missing --add-Task before --priority");
-                            }
-
-
-                            // --priority should not duplicate until the next --add-Task command
-                            if (CommandLine.findDuplicateTask(addTaskIndex, i, commands, "^priority\\s*.*")) {
-                                throw new IllegalArgumentException("Duplicate --priority command");
-                            }
-
-                            // --priority should have 1 argument with integer 1, 2 or 3
-                            if (parts.length > 1) {
-                                try {
-                                    int priorityLevel = Integer.parseInt(parts[1]);
-                                    if (priorityLevel != 1 && priorityLevel != 2 && priorityLevel != 3) {
-                                        throw new IllegalArgumentException("Invalid priority level for --priority option");
-                                    }
-                                    taskManager.findTaskById(taskManager.getCurrentMaxID()).setPriority(Priority.getPriority(priorityLevel));
-                                } catch (NumberFormatException e) {
-                                    throw new IllegalArgumentException("Invalid priority level for --priority option");
-                                }
-
-
-                            } else {
-                                throw new IllegalArgumentException("Missing priority level for --priority option");
-                            }
-                            break;
-
-                        case "category":
-                            // --category should have --add-Task before it
-                            addTaskFound = CommandLine.findAddTask(0, i, commands);
-                            if (!addTaskFound) {
-                                throw new IllegalArgumentException("Missing --add-Task before --category");
-                            }
-
-                            // --category should not duplicate until the next --add-Task command
-                            if (CommandLine.findDuplicateTask(addTaskIndex, i, commands, "^category\\s*.*")) {
-                                throw new IllegalArgumentException("Duplicate --category command");
-
-                            }
-
-                            // --category should have at least 1 argument to specify
-                            if (parts.length > 1) {
-                                taskManager.findTaskById(taskManager.getCurrentMaxID()).setCategory(parts[1]);
-                            } else {
-                                throw new IllegalArgumentException("Missing category name for --category option");
-                            }
-                            break;
-                        case "complete-Task":
-                            // --complete-Task should have 1 argument: integer ID of a task
-                            if (parts.length > 1) {
-                                try {
-                                    int taskId = Integer.parseInt(parts[1]);
-                                    taskManager.findTaskById(taskId).markCompleted(true);
-                                } catch (NumberFormatException e) {
-                                    throw new IllegalArgumentException("Invalid task ID for --complete-Task");
-                                }
-                            } else {
-                                throw new IllegalArgumentException("Missing task ID for --complete-Task");
-                            }
-
-                            break;
-                        default:
-                            throw new IllegalArgumentException("Exception: command not valid");
+                TaskManager lineManager = taskManager;
+                lineManager.runTransaction(() -> {
+                    for (Command command : lineCommands) {
+                        command.execute(lineManager, System.out);
                     }
-                    
-                }
-
-                taskManager.updateCSV();
+                });
             }
             catch (Exception e) {
                 System.err.println(e.toString());
-
             }
         }
         // scanner.close();
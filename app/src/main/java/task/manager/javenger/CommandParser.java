@@ -0,0 +1,450 @@
+package task.manager.javenger;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * CommandParser turns a command line into commands in a single pass. The line is cut into options at every "--",
+ * and each option is handed to its handler in a dispatch table, which validates it and adds it to the command it
+ * belongs to. Options of an --add-Task group are matched to the group through the parser state rather than by
+ * searching the line again, so parsing costs time linear in the length of the line.
+ *
+ * <p>Every option is validated before any command runs, so a line with an invalid option changes nothing.
+ */
+final class CommandParser {
+
+    /**
+     * One option of a command line.
+     *
+     * @param name the name of the option, the word following "--".
+     * @param argument the rest of the option with surrounding spaces removed, or null if there is none.
+     */
+    record Option(String name, String argument) {
+    }
+
+    private static final Map<String, BiConsumer<CommandParser, Option>> HANDLERS = Map.ofEntries(
+            Map.entry("csv-file", (parser, option) -> { }),
+            Map.entry("help", CommandParser::help),
+            Map.entry("add-Task", CommandParser::addTask),
+            Map.entry("Task-text", CommandParser::taskText),
+            Map.entry("completed", CommandParser::completed),
+            Map.entry("due", CommandParser::due),
+            Map.entry("priority", CommandParser::priority),
+            Map.entry("category", CommandParser::category),
+            Map.entry("complete-Task", CommandParser::completeTask),
+            Map.entry("update-Tasks", CommandParser::updateTasks),
+            Map.entry("if-incomplete", CommandParser::ifIncomplete),
+            Map.entry("if-category", CommandParser::ifCategory),
+            Map.entry("if-priority", CommandParser::ifPriority),
+            Map.entry("set-completed", CommandParser::setCompleted),
+            Map.entry("set-category", CommandParser::setCategory),
+            Map.entry("set-priority", CommandParser::setPriority),
+            Map.entry("shift-due", CommandParser::shiftDue),
+            Map.entry("display", CommandParser::display),
+            Map.entry("show-incomplete", CommandParser::showIncomplete),
+            Map.entry("show-category", CommandParser::showCategory),
+            Map.entry("sort-by-date", CommandParser::sortByDate),
+            Map.entry("sort-by-priority", CommandParser::sortByPriority),
+            Map.entry("limit", CommandParser::limit),
+            Map.entry("page-size", CommandParser::pageSize),
+            Map.entry("after", CommandParser::after),
+            Map.entry("format", CommandParser::format),
+            Map.entry("search", CommandParser::search),
+            Map.entry("stats", CommandParser::stats));
+
+    private static final Set<String> DISPLAY_OPTIONS = Set.of(
+            "show-incomplete", "show-category", "sort-by-date", "sort-by-priority", "limit", "page-size", "after", "format");
+
+    private final List<Command> commands = new ArrayList<>();
+    private Command.AddTask addTask;
+    private final Set<String> addTaskOptions = new HashSet<>();
+    private Command.Display display;
+    private Command.UpdateTasks updateTasks;
+    private final Set<String> updateOptions = new HashSet<>();
+
+    private CommandParser() {
+    }
+
+    /**
+     * Parses a command line into the commands to run, in the order of the line. --csv-file is left to the caller.
+     *
+     * @param line the command line.
+     * @return the commands.
+     * @throws IllegalArgumentException if an option is unknown, misplaced or has an invalid argument, or if --help is
+     *                                  not alone on the line.
+     */
+    static List<Command> parse(String line) {
+        CommandParser parser = new CommandParser();
+        List<Option> options = tokenize(line);
+        if (options.size() > 1 && options.stream().anyMatch(option -> option.name().equals("help"))) {
+            throw new IllegalArgumentException("Exception: --help Command must be the first command and only on its own.");
+        }
+        for (Option option : options) {
+            BiConsumer<CommandParser, Option> handler = HANDLERS.get(option.name());
+            if (handler == null) {
+                throw new IllegalArgumentException("Exception: command not valid");
+            }
+            if (parser.display != null && !DISPLAY_OPTIONS.contains(option.name())) {
+                parser.endDisplay();
+            }
+            handler.accept(parser, option);
+        }
+        parser.endDisplay();
+        parser.endAddTask();
+        parser.endUpdateTasks();
+        return parser.commands;
+    }
+
+    /**
+     * Cuts a command line into options at every "--". Anything before the first "--" is ignored.
+     *
+     * @param line the command line.
+     * @return the options, in the order of the line.
+     */
+    static List<Option> tokenize(String line) {
+        List<Option> options = new ArrayList<>();
+        int start = line.indexOf("--");
+        while (start >= 0) {
+            int end = line.indexOf("--", start + 2);
+            int limit = end >= 0 ? end : line.length();
+            int from = skipSpaces(line, start + 2, limit);
+            int nameEnd = from;
+            while (nameEnd < limit && line.charAt(nameEnd) != ' ') {
+                nameEnd++;
+            }
+            String argument = line.substring(nameEnd, limit).trim();
+            options.add(new Option(line.substring(from, nameEnd), argument.isEmpty() ? null : argument));
+            start = end;
+        }
+        return options;
+    }
+
+    private static int skipSpaces(String line, int from, int limit) {
+        while (from < limit && Character.isWhitespace(line.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private void help(Option option) {
+        commands.add(new Command.Help(option.argument()));
+    }
+
+    private void addTask(Option option) {
+        // --add-Task should not have any argument
+        if (option.argument() != null) {
+            throw new IllegalArgumentException("Too many arguments for --add-Task command");
+        }
+        endAddTask();
+        addTask = new Command.AddTask();
+        addTaskOptions.clear();
+        commands.add(addTask);
+    }
+
+    /**
+     * Checks that an option follows an --add-Task and is given only once in its group.
+     *
+     * @param option the option.
+     */
+    private void checkAddTaskOption(Option option) {
+        if (addTask == null) {
+            throw new IllegalArgumentException("Missing --add-Task before --" + option.name());
+        }
+        if (!addTaskOptions.add(option.name())) {
+            throw new IllegalArgumentException("Duplicate --" + option.name() + " command");
+        }
+    }
+
+    private void endAddTask() {
+        // --add-Task should have --Task-text before the next --add-Task
+        if (addTask != null && addTask.text == null) {
+            throw new IllegalArgumentException("Missing Task description for --add-Task option");
+        }
+    }
+
+    private void taskText(Option option) {
+        checkAddTaskOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing task description");
+        }
+        addTask.text = option.argument();
+    }
+
+    private void completed(Option option) {
+        checkAddTaskOption(option);
+        if (option.argument() != null) {
+            throw new IllegalArgumentException("Too many arguments for --completed command");
+        }
+        addTask.completed = true;
+    }
+
+    private void due(Option option) {
+        checkAddTaskOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing date yyyy-MM-dd for --due option");
+        }
+        try {
+            addTask.due = LocalDate.parse(option.argument());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid input format or missing date. Expected format: due yyyy-MM-dd");
+        }
+    }
+
+    private void priority(Option option) {
+        checkAddTaskOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing priority level for --priority option");
+        }
+        addTask.priority = Priority.getPriority(parsePositive(option.argument(), 3, "Invalid priority level for --priority option"));
+    }
+
+    private void category(Option option) {
+        checkAddTaskOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing category name for --category option");
+        }
+        addTask.category = option.argument();
+    }
+
+    private void completeTask(Option option) {
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing task ID for --complete-Task");
+        }
+        commands.add(new Command.CompleteTask(parseSelection(option, "Invalid task ID for --complete-Task")));
+    }
+
+    private void updateTasks(Option option) {
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing task IDs for --update-Tasks");
+        }
+        endUpdateTasks();
+        updateTasks = new Command.UpdateTasks();
+        updateTasks.selection = parseSelection(option, "Invalid task IDs for --update-Tasks");
+        updateOptions.clear();
+        commands.add(updateTasks);
+    }
+
+    /**
+     * Checks that an option follows an --update-Tasks and is given only once in its group.
+     *
+     * @param option the option.
+     */
+    private void checkUpdateOption(Option option) {
+        if (updateTasks == null) {
+            throw new IllegalArgumentException("Missing --update-Tasks before --" + option.name());
+        }
+        if (!updateOptions.add(option.name())) {
+            throw new IllegalArgumentException("Duplicate --" + option.name() + " command");
+        }
+    }
+
+    private void endUpdateTasks() {
+        // --update-Tasks should change something
+        if (updateTasks != null && !updateTasks.complete && updateTasks.category == null
+                && updateTasks.priority == null && updateTasks.shiftDays == null) {
+            throw new IllegalArgumentException("Missing --set-completed, --set-category, --set-priority or --shift-due for --update-Tasks option");
+        }
+    }
+
+    private void ifIncomplete(Option option) {
+        checkUpdateOption(option);
+        if (option.argument() != null) {
+            throw new IllegalArgumentException("Too many arguments for --if-incomplete command");
+        }
+        updateTasks.filter.completed(false);
+    }
+
+    private void ifCategory(Option option) {
+        checkUpdateOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing category name for --if-category option");
+        }
+        updateTasks.filter.category(option.argument());
+    }
+
+    private void ifPriority(Option option) {
+        checkUpdateOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing priority level for --if-priority option");
+        }
+        updateTasks.filter.priority(Priority.getPriority(parsePositive(option.argument(), 3, "Invalid priority level for --if-priority option")));
+    }
+
+    private void setCompleted(Option option) {
+        checkUpdateOption(option);
+        if (option.argument() != null) {
+            throw new IllegalArgumentException("Too many arguments for --set-completed command");
+        }
+        updateTasks.complete = true;
+    }
+
+    private void setCategory(Option option) {
+        checkUpdateOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing category name for --set-category option");
+        }
+        updateTasks.category = option.argument();
+    }
+
+    private void setPriority(Option option) {
+        checkUpdateOption(option);
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing priority level for --set-priority option");
+        }
+        updateTasks.priority = Priority.getPriority(parsePositive(option.argument(), 3, "Invalid priority level for --set-priority option"));
+    }
+
+    private void shiftDue(Option option) {
+        checkUpdateOption(option);
+        String days = singleWord(option, "Missing number of days for --shift-due option");
+        try {
+            updateTasks.shiftDays = Integer.parseInt(days);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number of days for --shift-due option");
+        }
+    }
+
+    private void display(Option option) {
+        display = new Command.Display();
+        commands.add(display);
+    }
+
+    /**
+     * Gets the --display command the current option belongs to.
+     *
+     * @return the command.
+     */
+    private Command.Display currentDisplay() {
+        if (display == null) {
+            throw new IllegalArgumentException("Exception: command not valid");
+        }
+        return display;
+    }
+
+    private void endDisplay() {
+        if (display == null) {
+            return;
+        }
+        if (display.pageSize != null && display.limit != null) {
+            throw new IllegalArgumentException("--limit cannot be combined with --page-size");
+        }
+        if (display.pageSize == null && display.after != null) {
+            throw new IllegalArgumentException("Missing --page-size for --after option");
+        }
+        display = null;
+    }
+
+    private void showIncomplete(Option option) {
+        currentDisplay().showIncomplete = true;
+    }
+
+    private void showCategory(Option option) {
+        currentDisplay().category = singleWord(option, "Category is missing.");
+    }
+
+    private void sortByDate(Option option) {
+        currentDisplay().sortByDate = true;
+    }
+
+    private void sortByPriority(Option option) {
+        currentDisplay().sortByPriority = true;
+    }
+
+    private void limit(Option option) {
+        currentDisplay().limit = parsePositive(singleWord(option, "Missing limit for --limit option"),
+                Integer.MAX_VALUE, "Invalid limit for --limit option");
+    }
+
+    private void pageSize(Option option) {
+        currentDisplay().pageSize = parsePositive(singleWord(option, "Missing page size for --page-size option"),
+                Integer.MAX_VALUE, "Invalid page size for --page-size option");
+    }
+
+    private void after(Option option) {
+        currentDisplay().after = singleWord(option, "Missing cursor for --after option");
+    }
+
+    private void format(Option option) {
+        Command.Display current = currentDisplay();
+        String name = singleWord(option, "Missing format for --format option");
+        try {
+            current.format = TaskFormat.getFormat(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format for --format option");
+        }
+    }
+
+    private void search(Option option) {
+        // --search should have at least 1 word to search for
+        if (option.argument() == null) {
+            throw new IllegalArgumentException("Missing words for --search option");
+        }
+        commands.add(new Command.Search(option.argument()));
+    }
+
+    private void stats(Option option) {
+        // --stats should not have any argument
+        if (option.argument() != null) {
+            throw new IllegalArgumentException("Too many arguments for --stats command");
+        }
+        commands.add(new Command.Stats());
+    }
+
+    /**
+     * Gets the argument of an option that takes exactly one word.
+     *
+     * @param option the option.
+     * @param message the message of the exception if the argument is missing or has several words.
+     * @return the argument.
+     */
+    private static String singleWord(Option option, String message) {
+        if (option.argument() == null || option.argument().indexOf(' ') >= 0) {
+            throw new IllegalArgumentException(message);
+        }
+        return option.argument();
+    }
+
+    /**
+     * Parses the task IDs of an option.
+     *
+     * @param option the option, with an argument.
+     * @param message the message of the exception if the IDs are not valid.
+     * @return the selection.
+     */
+    private static TaskSelection parseSelection(Option option, String message) {
+        if (option.argument().indexOf(' ') >= 0) {
+            throw new IllegalArgumentException(message);
+        }
+        try {
+            return TaskSelection.parse(option.argument());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Parses an integer between 1 and a maximum.
+     *
+     * @param value the text to parse.
+     * @param max the largest valid value.
+     * @param message the message of the exception if the value is not valid.
+     * @return the integer.
+     */
+    private static int parsePositive(String value, int max, String message) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 1 && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(message);
+    }
+}
@@ -0,0 +1,428 @@
+package task.manager.javenger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * ConcurrentTaskManager is a TaskManager that can be shared by many threads. Queries run under the shared read
+ * lock of a StampedLock, so they proceed in parallel on every core, while adds, completions, reloads and
+ * settings take the exclusive write lock for as long as the change itself. Small lookups such as findTaskById
+ * first try an optimistic read, which takes no lock at all and is retried under the read lock only if a write
+ * happened meanwhile.
+ *
+ * <p>StampedLock is not reentrant, so a thread already holding a lock of this manager runs nested calls without
+ * locking again. The tasks returned by queries and lookups are copies made under the lock, so they can be read
+ * after it is released and changing them does not change this manager. Held tasks are changed through
+ * {@link #updateTask(int, Consumer)}, {@link #runBatch(Runnable)} or {@link #runTransaction(Runnable)}, which run
+ * under the write lock and see the held tasks themselves; their setters throw IllegalStateException anywhere
+ * else.
+ */
+public class ConcurrentTaskManager extends TaskManager {
+
+    /** The innermost lock the current thread holds on a ConcurrentTaskManager. */
+    private static final class Held {
+        private ConcurrentTaskManager manager;
+        private boolean write;
+    }
+
+    private static final ThreadLocal<Held> HELD = ThreadLocal.withInitial(Held::new);
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Constructs a new ConcurrentTaskManager instance and loads tasks from the specified CSV file with its csvpath.
+     *
+     * @param csvFile The path to the CSV file.
+     */
+    public ConcurrentTaskManager(String csvFile) {
+        super(csvFile);
+    }
+
+    @Override
+    public void addTask(String text) {
+        write(() -> super.addTask(text));
+    }
+
+    @Override
+    public Task addTask(String text, boolean completed, LocalDate due, Priority priority, String category) {
+        boolean holder = holdsWriteLock();
+        return write(() -> {
+            Task added = super.addTask(text, completed, due, priority, category);
+            return holder ? added : added.copy();
+        });
+    }
+
+    @Override
+    public void loadTasksFromCSV() {
+        write(super::loadTasksFromCSV);
+    }
+
+    /**
+     * Reloads the tasks if the CSV file was changed by someone else. The file is checked under the read lock, so
+     * that the common case of an unchanged file does not hold up other readers.
+     */
+    @Override
+    public boolean reloadIfChanged() {
+        if (!read(super::isFileChanged)) {
+            return false;
+        }
+        return write(super::reloadIfChanged);
+    }
+
+    @Override
+    public boolean isModified() {
+        return optimisticRead(super::isModified);
+    }
+
+    @Override
+    public void setOffHeapText(boolean offHeap) {
+        write(() -> super.setOffHeapText(offHeap));
+    }
+
+    @Override
+    public void compactText() {
+        write(super::compactText);
+    }
+
+    @Override
+    public long getVersion() {
+        return optimisticRead(super::getVersion);
+    }
+
+    @Override
+    public void setQueryCacheBudget(int maxEntries, int maxCachedTasks) {
+        write(() -> super.setQueryCacheBudget(maxEntries, maxCachedTasks));
+    }
+
+    /**
+     * Writes all tasks to the CSV file. The write lock keeps two threads from writing the file at the same time.
+     */
+    @Override
+    public void updateCSV() {
+        write(super::updateCSV);
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        write(() -> super.addChangeListener(listener));
+    }
+
+    @Override
+    public void removeChangeListener(TaskChangeListener listener) {
+        write(() -> super.removeChangeListener(listener));
+    }
+
+    @Override
+    public void setChangeWindow(long millis) {
+        write(() -> super.setChangeWindow(millis));
+    }
+
+    /**
+     * Delivers the collected changes under the write lock, so listeners see the tasks as of the flush and may
+     * query this manager.
+     */
+    @Override
+    public void flushChanges() {
+        write(super::flushChanges);
+    }
+
+    /**
+     * Runs changes as one batch under the write lock, so readers see either none or all of them.
+     */
+    @Override
+    public void runBatch(Runnable batch) {
+        write(() -> super.runBatch(batch));
+    }
+
+    /**
+     * Runs changes as one transaction under the write lock, so readers never see changes that are rolled back.
+     */
+    @Override
+    public void runTransaction(Runnable transaction) {
+        write(() -> super.runTransaction(transaction));
+    }
+
+    @Override
+    public List<Task> select(TaskSelection selection) {
+        return read(() -> copies(super.select(selection)));
+    }
+
+    @Override
+    public void completeTask(int id) {
+        write(() -> super.completeTask(id));
+    }
+
+    /**
+     * Changes a task atomically: readers see either none or all of the changes, together with the indexes.
+     *
+     * @param id the ID of the task.
+     * @param change the changes to apply through the setters of the task.
+     * @throws IllegalArgumentException if a task does not exist.
+     */
+    public void updateTask(int id, Consumer<Task> change) {
+        write(() -> {
+            Task task = super.findTaskById(id);
+            if (task == null) {
+                throw new IllegalArgumentException("Task ID " + id + " does not exist.");
+            }
+            change.accept(task);
+        });
+    }
+
+    @Override
+    public Task findTaskById(int id) {
+        return optimisticRead(() -> copy(super.findTaskById(id)));
+    }
+
+    @Override
+    public int generateNewId() {
+        return optimisticRead(super::generateNewId);
+    }
+
+    @Override
+    public int getCurrentMaxID() {
+        return optimisticRead(super::getCurrentMaxID);
+    }
+
+    @Override
+    public void displayTasks(Boolean showIncomplete, String showCategory, Boolean sortByDate, Boolean sortByPriority, Integer limit) {
+        read(() -> {
+            super.displayTasks(showIncomplete, showCategory, sortByDate, sortByPriority, limit);
+            return null;
+        });
+    }
+
+    @Override
+    public String displayPage(Boolean showIncomplete, String showCategory, Boolean sortByDate, Boolean sortByPriority, int pageSize, String after) {
+        return read(() -> super.displayPage(showIncomplete, showCategory, sortByDate, sortByPriority, pageSize, after));
+    }
+
+    @Override
+    public List<Task> query(TaskQuery query) {
+        return read(() -> copies(super.query(query)));
+    }
+
+    @Override
+    public void setParallelThreshold(int parallelThreshold) {
+        write(() -> super.setParallelThreshold(parallelThreshold));
+    }
+
+    @Override
+    public TaskPage getPage(TaskQuery query, int pageSize, String after) {
+        return read(() -> {
+            TaskPage page = super.getPage(query, pageSize, after);
+            return new TaskPage(copies(page.getTasks()), page.getNextCursor());
+        });
+    }
+
+    @Override
+    public List<Task> search(String terms) {
+        return read(() -> copies(super.search(terms)));
+    }
+
+    @Override
+    public String explain(TaskQuery query) {
+        return read(() -> super.explain(query));
+    }
+
+    @Override
+    public List<Task> getTopTasks(int limit, Comparator<? super Task> order) {
+        return read(() -> copies(super.getTopTasks(limit, order)));
+    }
+
+    /**
+     * Gets a copy of the aggregate counters. Unlike TaskManager, the counters do not follow later changes, since
+     * the live counters may only be read under the lock.
+     *
+     * @return a snapshot of the counters.
+     */
+    @Override
+    public TaskStats getStats() {
+        return read(() -> new TaskStats(super.getStats()));
+    }
+
+    @Override
+    public void displayStats() {
+        read(() -> {
+            super.displayStats();
+            return null;
+        });
+    }
+
+    @Override
+    public List<Task> getTasksByCompletion(boolean completed) {
+        return read(() -> copies(super.getTasksByCompletion(completed)));
+    }
+
+    @Override
+    public List<Task> getTasksByCategory(String category) {
+        return read(() -> copies(super.getTasksByCategory(category)));
+    }
+
+    /**
+     * Gets a copy of every task, made under the read lock.
+     *
+     * @return the copies, in list order.
+     */
+    @Override
+    public List<Task> getTasks() {
+        return read(() -> copies(super.getTasks()));
+    }
+
+    @Override
+    public void setCsvFilePath(String path) {
+        write(() -> super.setCsvFilePath(path));
+    }
+
+    /**
+     * Refuses changes to held tasks made without the write lock, readers would see the new value before the
+     * indexes do.
+     */
+    @Override
+    void taskChanging(Task task, TaskField field) {
+        if (!holdsWriteLock()) {
+            throw new IllegalStateException("Task ID " + task.getId()
+                    + " is held by a ConcurrentTaskManager, change it through updateTask, runBatch or runTransaction.");
+        }
+    }
+
+    /**
+     * Checks whether the current thread holds the write lock of this manager.
+     *
+     * @return true if it does, or if the manager is still being constructed.
+     */
+    private boolean holdsWriteLock() {
+        Held held = HELD.get();
+        return lock == null || (held.manager == this && held.write);
+    }
+
+    /**
+     * Copies a held task for a caller, unless the caller holds the write lock and may change the task itself.
+     * Must be called under a lock of this manager.
+     *
+     * @param task the task, or null.
+     * @return the task or its copy, null if the task is null.
+     */
+    private Task copy(Task task) {
+        // a task held by no manager is already a copy, made by a nested call
+        return (task == null || task.getPosition() < 0 || holdsWriteLock()) ? task : task.copy();
+    }
+
+    /**
+     * Copies held tasks for a caller, unless the caller holds the write lock and may change the tasks themselves.
+     * Must be called under a lock of this manager.
+     *
+     * @param tasks the tasks.
+     * @return the tasks, or a new list of their copies.
+     */
+    private List<Task> copies(List<Task> tasks) {
+        if (holdsWriteLock()) {
+            return tasks;
+        }
+        List<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copies.add(copy(task));
+        }
+        return copies;
+    }
+
+    /**
+     * Runs an action under the shared read lock.
+     *
+     * @param action the action.
+     * @return the result of the action.
+     */
+    private <T> T read(Supplier<T> action) {
+        Held held = HELD.get();
+        if (lock == null || held.manager == this) {
+            return action.get();
+        }
+        ConcurrentTaskManager outer = held.manager;
+        boolean outerWrite = held.write;
+        long stamp = lock.readLock();
+        held.manager = this;
+        held.write = false;
+        try {
+            return action.get();
+        } finally {
+            held.manager = outer;
+            held.write = outerWrite;
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a side-effect free action without locking, and again under the read lock if a write happened while it
+     * ran. An exception thrown from a state torn by a concurrent write is discarded along with the result.
+     *
+     * @param action the action, it must not change anything.
+     * @return the result of the action.
+     */
+    private <T> T optimisticRead(Supplier<T> action) {
+        if (lock == null || HELD.get().manager == this) {
+            return action.get();
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = action.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        return read(action);
+    }
+
+    /**
+     * Runs an action under the exclusive write lock.
+     *
+     * @param action the action.
+     * @throws IllegalStateException if the current thread holds the read lock, a read lock cannot be upgraded.
+     */
+    private void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs an action under the exclusive write lock.
+     *
+     * @param action the action.
+     * @return the result of the action.
+     * @throws IllegalStateException if the current thread holds the read lock, a read lock cannot be upgraded.
+     */
+    private <T> T write(Supplier<T> action) {
+        if (holdsWriteLock()) {
+            // lock is null while the TaskManager constructor loads the tasks, before this object is published
+            return action.get();
+        }
+        Held held = HELD.get();
+        if (held.manager == this) {
+            throw new IllegalStateException("Tasks cannot be changed while they are being read.");
+        }
+        ConcurrentTaskManager outer = held.manager;
+        boolean outerWrite = held.write;
+        long stamp = lock.writeLock();
+        held.manager = this;
+        held.write = true;
+        try {
+            return action.get();
+        } finally {
+            held.manager = outer;
+            held.write = outerWrite;
+            lock.unlockWrite(stamp);
+        }
+    }
+}
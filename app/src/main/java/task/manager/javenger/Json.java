@@ -0,0 +1,225 @@
+package task.manager.javenger;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Json writes tasks and counters as JSON straight to an Appendable, so a long list is streamed rather than built as
+ * one string, and reads the flat JSON objects clients send to create tasks. Only what the HTTP API needs is
+ * supported: objects of strings, numbers, booleans and null.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Writes a task as a JSON object.
+     *
+     * @param task the task.
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeTask(Task task, Appendable out) throws IOException {
+        out.append("{\"id\":").append(Integer.toString(task.getId()));
+        out.append(",\"text\":");
+        writeString(task.getText(), out);
+        out.append(",\"completed\":").append(Boolean.toString(task.isCompleted()));
+        out.append(",\"due\":");
+        writeString(task.getDue() != null ? task.getDue().toString() : null, out);
+        out.append(",\"priority\":\"").append(task.getPriority().name()).append('"');
+        out.append(",\"category\":");
+        writeString(task.getCategory(), out);
+        out.append('}');
+    }
+
+    /**
+     * Writes the aggregate counters as a JSON object.
+     *
+     * @param stats the counters.
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeStats(TaskStats stats, Appendable out) throws IOException {
+        out.append("{\"total\":").append(Integer.toString(stats.getTotal()));
+        out.append(",\"completed\":").append(Integer.toString(stats.getCompleted()));
+        out.append(",\"incomplete\":").append(Integer.toString(stats.getIncomplete()));
+        out.append(",\"overdue\":").append(Integer.toString(stats.getOverdue()));
+        out.append(",\"priorities\":{");
+        for (Priority priority : Priority.values()) {
+            if (priority.ordinal() > 0) {
+                out.append(',');
+            }
+            out.append('"').append(priority.name()).append("\":").append(Integer.toString(stats.getCount(priority)));
+        }
+        out.append("},\"categories\":{");
+        boolean first = true;
+        for (Map.Entry<String, Integer> entry : stats.getCategoryCounts().entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            writeString(entry.getKey(), out);
+            out.append(':').append(Integer.toString(entry.getValue()));
+        }
+        out.append("}}");
+    }
+
+    /**
+     * Writes a string as a JSON string, or null.
+     *
+     * @param value the string, may be null.
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    static void writeString(String value, Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Parses a flat JSON object.
+     *
+     * @param json the JSON text.
+     * @return the members in the order of the text: String, Boolean, Long, Double or null values.
+     * @throws IllegalArgumentException if the text is not a flat JSON object.
+     */
+    static Map<String, Object> parseObject(String json) {
+        Parser parser = new Parser(json);
+        Map<String, Object> members = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.string();
+                parser.expect(':');
+                members.put(name, parser.value());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.end();
+        return members;
+    }
+
+    /** A cursor over the JSON text being parsed. */
+    private static final class Parser {
+        private final String json;
+        private int position;
+
+        private Parser(String json) {
+            this.json = json;
+        }
+
+        private void skipSpaces() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean consume(char c) {
+            skipSpaces();
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("'" + c + "' expected");
+            }
+        }
+
+        private void end() {
+            skipSpaces();
+            if (position != json.length()) {
+                throw error("end of object expected");
+            }
+        }
+
+        private Object value() {
+            skipSpaces();
+            if (position < json.length() && json.charAt(position) == '"') {
+                return string();
+            }
+            for (String literal : new String[] {"true", "false", "null"}) {
+                if (json.startsWith(literal, position)) {
+                    position += literal.length();
+                    return literal.equals("null") ? null : Boolean.valueOf(literal);
+                }
+            }
+            int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            String number = json.substring(start, position);
+            try {
+                return number.matches("-?\\d+") ? (Object) Long.valueOf(number) : (Object) Double.valueOf(number);
+            } catch (NumberFormatException e) {
+                throw error("value expected");
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                } else if (position < json.length()) {
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            if (position + 4 > json.length()) {
+                                throw error("unicode escape expected");
+                            }
+                            try {
+                                value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            } catch (NumberFormatException e) {
+                                throw error("unicode escape expected");
+                            }
+                            position += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + position + ": " + message + ".");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package task.manager.javenger;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * QueryCache keeps the results of recent queries of a TaskManager in least recently used order.
+ * The cache is bounded both in number of entries and in the total number of tasks the results hold.
+ * A change only drops the results it can affect: those of queries the changed task matches before or after it.
+ * Lookups reorder the entries, so every method is synchronized to let concurrent readers share the cache.
+ */
+class QueryCache {
+    static final int DEFAULT_MAX_ENTRIES = 64;
+    static final int DEFAULT_MAX_CACHED_TASKS = 1_000_000;
+
+    private final LinkedHashMap<TaskQuery, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private int maxCachedTasks = DEFAULT_MAX_CACHED_TASKS;
+    private int cachedTasks;
+    private long hits;
+    private long misses;
+
+    /**
+     * Entry is one cached result and the version of the task list it was computed at.
+     */
+    private static class Entry {
+        private final List<Task> result;
+        private final long version;
+
+        Entry(List<Task> result, long version) {
+            this.result = result;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Sets the bounds of the cache, evicting the least recently used results if needed.
+     *
+     * @param maxEntries the maximum number of cached results.
+     * @param maxCachedTasks the maximum number of tasks held by all results together.
+     */
+    synchronized void setBudget(int maxEntries, int maxCachedTasks) {
+        this.maxEntries = maxEntries;
+        this.maxCachedTasks = maxCachedTasks;
+        evict();
+    }
+
+    /**
+     * Gets the cached result of a query.
+     *
+     * @param query the query.
+     * @return the unmodifiable result, or null if it is not cached.
+     */
+    synchronized List<Task> get(TaskQuery query) {
+        Entry entry = entries.get(query);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    /**
+     * Gets the version of the task list a cached result was computed at.
+     *
+     * @param query the query.
+     * @return the version, or -1 if the result is not cached.
+     */
+    synchronized long getVersion(TaskQuery query) {
+        Entry entry = entries.get(query);
+        return (entry != null) ? entry.version : -1;
+    }
+
+    /**
+     * Caches the result of a query, unless it alone exceeds the budget.
+     *
+     * @param query the query, it is copied so the caller may keep changing it.
+     * @param result the result of the query.
+     * @param version the version of the task list the result was computed at.
+     */
+    synchronized void put(TaskQuery query, List<Task> result, long version) {
+        if (result.size() > maxCachedTasks || maxEntries <= 0) {
+            return;
+        }
+        Entry old = entries.put(query.copy(), new Entry(Collections.unmodifiableList(result), version));
+        if (old != null) {
+            cachedTasks -= old.result.size();
+        }
+        cachedTasks += result.size();
+        evict();
+    }
+
+    /**
+     * Drops the results a new task can appear in.
+     *
+     * @param task the added task.
+     */
+    synchronized void taskAdded(Task task) {
+        Iterator<Map.Entry<TaskQuery, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<TaskQuery, Entry> entry = it.next();
+            if (entry.getKey().matches(task)) {
+                cachedTasks -= entry.getValue().result.size();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops the results a changed task appears in before or after the change.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    synchronized void taskChanged(Task task, TaskField field, Object oldValue) {
+        if (field == TaskField.ID) {
+            return;
+        }
+        Iterator<Map.Entry<TaskQuery, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<TaskQuery, Entry> entry = it.next();
+            TaskQuery query = entry.getKey();
+            if (query.matches(task) || query.matches(task, field, oldValue)) {
+                cachedTasks -= entry.getValue().result.size();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops every result.
+     */
+    synchronized void clear() {
+        entries.clear();
+        cachedTasks = 0;
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the number of entries.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the number of hits.
+     */
+    synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups not answered from the cache.
+     *
+     * @return the number of misses.
+     */
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Evicts the least recently used results until the cache is within its budget.
+     */
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && (entries.size() > maxEntries || cachedTasks > maxCachedTasks)) {
+            cachedTasks -= it.next().result.size();
+            it.remove();
+        }
+    }
+}
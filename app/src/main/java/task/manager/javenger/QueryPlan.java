@@ -0,0 +1,83 @@
+package task.manager.javenger;
+
+import java.util.BitSet;
+import java.util.function.Supplier;
+
+/**
+ * QueryPlan describes how a TaskQuery is executed: either by a full scan of the task list or by walking the
+ * positions found in one index.
+ */
+class QueryPlan {
+    static final String SCAN = "scan";
+
+    private final String index;
+    private final int estimatedRows;
+    private final Supplier<BitSet> candidates;
+
+    /**
+     * Constructs a new QueryPlan.
+     *
+     * @param index the name of the index used, or SCAN.
+     * @param estimatedRows the number of tasks the plan is expected to visit.
+     * @param candidates builds the positions of the candidate tasks, null for a full scan.
+     */
+    QueryPlan(String index, int estimatedRows, Supplier<BitSet> candidates) {
+        this.index = index;
+        this.estimatedRows = estimatedRows;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Constructs a plan which visits every task.
+     *
+     * @param size the number of tasks in the list.
+     * @return a full scan plan.
+     */
+    static QueryPlan scan(int size) {
+        return new QueryPlan(SCAN, size, null);
+    }
+
+    /**
+     * Gets the name of the index used by this plan.
+     *
+     * @return the name of the index, or SCAN for a full scan.
+     */
+    String getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the number of tasks this plan is expected to visit.
+     *
+     * @return the estimated number of visited tasks.
+     */
+    int getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Checks whether this plan visits every task.
+     *
+     * @return true for a full scan.
+     */
+    boolean isScan() {
+        return candidates == null;
+    }
+
+    /**
+     * Builds the positions of the tasks to visit. Every matching task is among them, but not every candidate matches.
+     *
+     * @return the candidate positions, or null for a full scan.
+     */
+    BitSet getCandidates() {
+        return (candidates != null) ? candidates.get() : null;
+    }
+
+    /**
+     * Overrides the toString method to print the plan.
+     */
+    @Override
+    public String toString() {
+        return index + " (~" + estimatedRows + " rows)";
+    }
+}
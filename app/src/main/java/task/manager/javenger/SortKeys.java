@@ -0,0 +1,195 @@
+package task.manager.javenger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SortKeys orders tasks on packed primitive keys instead of comparing LocalDate and Priority objects.
+ * Every task gets one long: the bits of its sort attributes, most significant first, followed by its index in the
+ * list being sorted. Sorting the longs therefore yields the same order as a stable sort with the TaskOrder's
+ * comparator, and the index in the low bits maps every key back to its task.
+ *
+ * <p>Key layouts, from the most significant bit:
+ * <ul>
+ *     <li>DUE_DATE: 32 bits due date, 2 unused bits, 30 bits index</li>
+ *     <li>NEXT_DUE: 32 bits due date, 2 bits priority, 30 bits index</li>
+ *     <li>PRIORITY: 2 bits priority, 32 unused bits, 30 bits index</li>
+ *     <li>HIGHEST_PRIORITY: 2 bits inverted priority, 32 bits due date, 30 bits index</li>
+ * </ul>
+ * The due date is the epoch day shifted to an unsigned int, with all ones as the sentinel for no due date so those
+ * tasks sort last. Keys are laid out unsigned and stored with the sign bit flipped, so signed long order is the
+ * unsigned order.
+ */
+final class SortKeys {
+    static final int MAX_SIZE = 1 << 30;
+    private static final int INDEX_BITS = 30;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long NO_DUE_DATE = 0xFFFFFFFFL;
+    private static final int MAX_PRIORITY = Priority.values().length - 1;
+
+    private SortKeys() {
+    }
+
+    /**
+     * Checks whether a list can be sorted on packed keys.
+     *
+     * @param order the ordering.
+     * @param size the size of the list.
+     * @return true if the ordering has a key layout and every index fits the key.
+     */
+    static boolean supports(TaskOrder order, int size) {
+        return order != TaskOrder.NONE && size <= MAX_SIZE;
+    }
+
+    /**
+     * Builds the packed key of a task.
+     *
+     * @param task the task.
+     * @param order the ordering.
+     * @param index the index of the task in the list being sorted.
+     * @return the key, with the sign bit flipped.
+     */
+    static long key(Task task, TaskOrder order, int index) {
+        long priority = task.getPriority().ordinal();
+        long key;
+        switch (order) {
+            case DUE_DATE:
+                key = dueBits(task.getDueEpochDay()) << 32;
+                break;
+            case NEXT_DUE:
+                key = (dueBits(task.getDueEpochDay()) << 32) | (priority << INDEX_BITS);
+                break;
+            case PRIORITY:
+                key = priority << 62;
+                break;
+            case HIGHEST_PRIORITY:
+                key = ((MAX_PRIORITY - priority) << 62) | (dueBits(task.getDueEpochDay()) << INDEX_BITS);
+                break;
+            default:
+                throw new IllegalArgumentException("No sort key for order " + order);
+        }
+        return (key | index) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Sorts tasks on their packed keys.
+     *
+     * @param tasks the tasks to sort, at most MAX_SIZE.
+     * @param order the ordering.
+     * @param parallel true to build and sort the keys on the common fork-join pool.
+     * @return a new sorted list, equal to a stable sort with the comparator of the ordering.
+     */
+    static List<Task> sort(List<Task> tasks, TaskOrder order, boolean parallel) {
+        long[] keys = new long[tasks.size()];
+        if (parallel) {
+            Arrays.parallelSetAll(keys, i -> key(tasks.get(i), order, i));
+            Arrays.parallelSort(keys);
+        } else {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key(tasks.get(i), order, i);
+            }
+            Arrays.sort(keys);
+        }
+        return toTasks(tasks, keys, keys.length);
+    }
+
+    /**
+     * Selects the limit first tasks of the ordering with a bounded max-heap of packed keys, costing O(n log limit).
+     *
+     * @param tasks the tasks to select from, at most MAX_SIZE.
+     * @param order the ordering.
+     * @param limit the number of tasks to keep.
+     * @return a new sorted list of at most limit tasks.
+     */
+    static List<Task> selectTop(List<Task> tasks, TaskOrder order, int limit) {
+        long[] heap = new long[Math.min(limit, tasks.size())];
+        int size = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            long key = key(tasks.get(i), order, i);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        return toTasks(tasks, heap, size);
+    }
+
+    /**
+     * Maps sorted keys back to their tasks.
+     *
+     * @param tasks the list the keys were built from.
+     * @param keys the sorted keys.
+     * @param size the number of keys to map.
+     * @return a new list of the tasks in key order.
+     */
+    private static List<Task> toTasks(List<Task> tasks, long[] keys, int size) {
+        List<Task> sorted = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sorted.add(tasks.get((int) (keys[i] & INDEX_MASK)));
+        }
+        return sorted;
+    }
+
+    /**
+     * Encodes a due date as an unsigned 32-bit value.
+     *
+     * @param epochDay the due date as held by Task, Task.NO_DUE_DATE if the task has none.
+     * @return the encoded date, NO_DUE_DATE for a task without due date.
+     */
+    private static long dueBits(int epochDay) {
+        if (epochDay == Task.NO_DUE_DATE) {
+            return NO_DUE_DATE;
+        }
+        return (long) epochDay - Integer.MIN_VALUE - 1;
+    }
+
+    /**
+     * Restores the max-heap property after adding at the end.
+     *
+     * @param heap the heap.
+     * @param index the index of the added key.
+     */
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    /**
+     * Restores the max-heap property after replacing the root.
+     *
+     * @param heap the heap.
+     * @param size the number of keys in the heap.
+     */
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (key >= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
@@ -6,15 +6,24 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 /**
- * Task is a class representing each task needed to be organized in the Task Manager
+ * Task is a class representing each task needed to be organized in the Task Manager.
+ * The due date is held as an int epoch day and the priority as a byte ordinal, so a task carries no LocalDate
+ * or Priority reference of its own and compareTo only compares ints. The text field holds either the text or,
+ * when it is stored off-heap, its place in a TextArena, which keeps a task at 40 bytes on a 64-bit JVM with
+ * compressed references.
  */
 public class Task implements Comparable<Task>{
+    static final int NO_DUE_DATE = Integer.MIN_VALUE;
+    private static final Priority[] PRIORITIES = Priority.values();
+
     private int id;
-    private String text;
+    private Object text;
     private boolean completed;
-    private LocalDate due;
-    private Priority priority;
-    private String category;
+    private int due = NO_DUE_DATE;
+    private byte priority;
+    private TaskObserver observer;
+    private int position = -1;
+    private int categoryCode = CategoryDictionary.NO_CATEGORY;
 
     private static final String CSV_SEPARATOR = ",";
     private static final String REPLACEMENT_CHARACTER = "�";
@@ -47,7 +56,21 @@ public class Task implements Comparable<Task>{
     public Task(String text) {
         setText(text);
         this.completed = false;
-        this.priority = Priority.LOW;
+        this.priority = (byte) Priority.LOW.ordinal();
+    }
+
+    /**
+     * Constructs a detached copy of a task, with its text on the heap.
+     *
+     * @param other the task to copy.
+     */
+    private Task(Task other) {
+        this.id = other.id;
+        this.text = other.getText();
+        this.completed = other.completed;
+        this.due = other.due;
+        this.priority = other.priority;
+        this.categoryCode = other.categoryCode;
     }
 
     /**
@@ -58,29 +81,50 @@ public class Task implements Comparable<Task>{
         if (id <= 0) {
             throw new IllegalArgumentException("ID must be a positive value.");
         }
-        this.id = id;
+        int oldId = this.id;
+        if (oldId != id) {
+            checkChange(TaskField.ID);
+            this.id = id;
+            fireChanged(TaskField.ID, oldId);
+        }
     }
 
     /**
      * Sets the task's text description.
      *
      * @param text The text to be set. 
-     * @throws IllegalArgumentException if setted text is null or empty.
+     * @throws IllegalArgumentException if setted text is null or empty, or contains a line break.
      */
     public void setText(String text) {
         if (text == null || text.trim().isEmpty()) {
             throw new IllegalArgumentException("Text cannot be null or empty,it is required");
         }
-        this.text = text.replace(REPLACEMENT_CHARACTER, ",");
+        if (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Text cannot contain a line break.");
+        }
+        String oldText = getText();
+        String newText = text.replace(REPLACEMENT_CHARACTER, ",");
+        if (!newText.equals(oldText)) {
+            checkChange(TaskField.TEXT);
+            storeText(newText);
+            fireChanged(TaskField.TEXT, oldText);
+        }
     }
 
     /**
      * Sets the due date of the task.
      *
      * @param due the due date to be set and it is a LocalDate object. It can be null, meaning there is no deadline in this task.
+     * @throws IllegalArgumentException if the date is too far from 1970 to be held as an int epoch day.
      */
     public void setDue(LocalDate due) { 
-        this.due = due;
+        int newDue = (due != null) ? toEpochDay(due) : NO_DUE_DATE;
+        if (newDue != this.due) {
+            checkChange(TaskField.DUE);
+            LocalDate oldDue = getDue();
+            this.due = newDue;
+            fireChanged(TaskField.DUE, oldDue);
+        }
     }
 
     /**
@@ -89,16 +133,32 @@ public class Task implements Comparable<Task>{
      * @param priority The priority level to be set. it is setted as LOW if null.
      */
     public void setPriority(Priority priority) {
-        this.priority = (priority != null) ? priority : Priority.LOW;
+        Priority oldPriority = getPriority();
+        Priority newPriority = (priority != null) ? priority : Priority.LOW;
+        if (oldPriority != newPriority) {
+            checkChange(TaskField.PRIORITY);
+            this.priority = (byte) newPriority.ordinal();
+            fireChanged(TaskField.PRIORITY, oldPriority);
+        }
     }
 
     /**
      * Sets the category of the task.
      *
      * @param category The category name to be setted. it can be null or empty, meaning the task is uncategorized.
+     * @throws IllegalArgumentException if the category contains a comma or a line break, which the CSV file cannot hold.
      */
     public void setCategory(String category) {  
-        this.category = (category == null || category.trim().isEmpty()) ? null : category;
+        if (category != null && (category.indexOf(',') >= 0 || category.indexOf('\n') >= 0 || category.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("Category cannot contain a comma or a line break.");
+        }
+        int newCode = CategoryDictionary.SHARED.code((category == null || category.trim().isEmpty()) ? null : category);
+        if (newCode != categoryCode) {
+            checkChange(TaskField.CATEGORY);
+            String oldCategory = getCategory();
+            categoryCode = newCode;
+            fireChanged(TaskField.CATEGORY, oldCategory);
+        }
     }
 
     /**
@@ -107,7 +167,12 @@ public class Task implements Comparable<Task>{
      * @param completed mark and change the task as completed since it is immutable. it only canbe true or false.
      */
     public void markCompleted(boolean completed) { 
-        this.completed = completed;
+        boolean oldCompleted = this.completed;
+        if (oldCompleted != completed) {
+            checkChange(TaskField.COMPLETED);
+            this.completed = completed;
+            fireChanged(TaskField.COMPLETED, oldCompleted);
+        }
     }
 
     /**
@@ -125,7 +190,7 @@ public class Task implements Comparable<Task>{
      * @return the text of the task.
      */
     public String getText() {
-        return text;
+        return (text instanceof OffHeapText offHeap) ? offHeap.arena().get(offHeap.handle()) : (String) text;
     }
 
     /**
@@ -143,7 +208,7 @@ public class Task implements Comparable<Task>{
      * @return the due date of the task.
      */
     public LocalDate getDue() {
-        return due;
+        return (due != NO_DUE_DATE) ? LocalDate.ofEpochDay(due) : null;
     }
 
     /**
@@ -152,7 +217,7 @@ public class Task implements Comparable<Task>{
      * @return the due date of the task.
      */
     public Priority getPriority() {
-        return priority;
+        return PRIORITIES[priority];
     }
 
     /**
@@ -161,7 +226,137 @@ public class Task implements Comparable<Task>{
      * @return the category of the task.
      */
     public String getCategory() {
-        return category;
+        return CategoryDictionary.SHARED.name(categoryCode);
+    }
+
+    /**
+     * Sets the observer notified after a field of this task changes, null to detach the task.
+     *
+     * @param observer the observer, normally the TaskManager holding this task.
+     */
+    void setObserver(TaskObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Gets the position of this task in the list of its TaskManager.
+     *
+     * @return the position, or -1 if the task is not held by a TaskManager.
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * Sets the position of this task in the list of its TaskManager.
+     *
+     * @param position the position in the task list.
+     */
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    /**
+     * Gets the due date as an epoch day, without creating a LocalDate.
+     *
+     * @return the epoch day, or NO_DUE_DATE if the task has no due date.
+     */
+    int getDueEpochDay() {
+        return due;
+    }
+
+    /**
+     * Converts a due date to an int epoch day.
+     *
+     * @param date the date.
+     * @return the epoch day.
+     * @throws IllegalArgumentException if the date does not fit an int epoch day.
+     */
+    static int toEpochDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay <= NO_DUE_DATE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Due date " + date + " is out of range.");
+        }
+        return (int) epochDay;
+    }
+
+    /**
+     * Gets the code of the category in the shared category dictionary.
+     *
+     * @return the code, or CategoryDictionary.NO_CATEGORY if the task is uncategorized.
+     */
+    int getCategoryCode() {
+        return categoryCode;
+    }
+
+    /**
+     * Moves the text of this task into an off-heap arena, or back onto the heap.
+     *
+     * @param arena the arena to hold the text, null to keep the text on the heap.
+     */
+    void setTextArena(TextArena arena) {
+        Object old = text;
+        String current = getText();
+        // the text is in its new place before the old one is freed, so a reader of an old snapshot always finds it
+        text = (arena != null && current != null) ? new OffHeapText(arena, arena.put(current)) : current;
+        if (old instanceof OffHeapText offHeap) {
+            offHeap.arena().free(offHeap.handle());
+        }
+    }
+
+    /**
+     * Stores the text in the arena of this task if it has one, otherwise on the heap.
+     *
+     * @param newText the text to store.
+     */
+    private void storeText(String newText) {
+        if (text instanceof OffHeapText offHeap) {
+            text = new OffHeapText(offHeap.arena(), offHeap.arena().put(newText));
+            offHeap.arena().free(offHeap.handle());
+        } else {
+            text = newText;
+        }
+    }
+
+    /**
+     * The place of a text stored off-heap.
+     *
+     * @param arena the arena holding the text.
+     * @param handle the handle of the text in the arena.
+     */
+    private record OffHeapText(TextArena arena, int handle) {
+    }
+
+    /**
+     * Makes a copy of this task that no TaskManager holds, so changing either one leaves the other as it was.
+     *
+     * @return the copy.
+     */
+    Task copy() {
+        return new Task(this);
+    }
+
+    /**
+     * Lets the observer, if any, refuse a change before it is made.
+     *
+     * @param field the field about to change.
+     */
+    private void checkChange(TaskField field) {
+        if (observer != null) {
+            observer.taskChanging(this, field);
+        }
+    }
+
+    /**
+     * Notifies the observer, if any, that a field has changed.
+     *
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    private void fireChanged(TaskField field, Object oldValue) {
+        if (observer != null) {
+            observer.taskChanged(this, field, oldValue);
+        }
     }
 
     /**
@@ -213,10 +408,35 @@ public class Task implements Comparable<Task>{
      * @return A string in CSV line format. It considers the null or empty condition.
      */
     public String toCSVLine() {
-        String formattedDue = (due != null) ? due.format(CSV_DATE_FORMAT) : "";
-        return id + CSV_SEPARATOR + text.replace(",", REPLACEMENT_CHARACTER) + CSV_SEPARATOR +
-                completed + CSV_SEPARATOR + formattedDue + CSV_SEPARATOR +
-                (priority != null ? priority : "") + CSV_SEPARATOR + (category != null ? category : "");
+        StringBuilder line = new StringBuilder(64);
+        appendCsvLine(line);
+        return line.toString();
+    }
+
+    /**
+     * Appends the task in CSV line format, without a line separator, to a builder that can be reused across tasks.
+     *
+     * @param line the builder to append to.
+     */
+    void appendCsvLine(StringBuilder line) {
+        line.append(id).append(CSV_SEPARATOR);
+        String text = getText();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                line.append(REPLACEMENT_CHARACTER);
+            } else {
+                line.append(c);
+            }
+        }
+        line.append(CSV_SEPARATOR).append(completed).append(CSV_SEPARATOR);
+        if (due != NO_DUE_DATE) {
+            CSV_DATE_FORMAT.formatTo(getDue(), line);
+        }
+        line.append(CSV_SEPARATOR).append(getPriority()).append(CSV_SEPARATOR);
+        if (categoryCode != CategoryDictionary.NO_CATEGORY) {
+            line.append(getCategory());
+        }
     }
 
     /**
@@ -224,14 +444,24 @@ public class Task implements Comparable<Task>{
      */
     @Override
     public String toString() {
-        return "Task{" +
-                "id=" + id +
-                ", text='" + text + '\'' +
-                ", completed=" + completed +
-                ", due='" + due + '\'' +
-                ", priority='" + priority + '\'' +
-                ", category='" + category + '\'' +
-                '}';
+        StringBuilder line = new StringBuilder(96);
+        appendString(line);
+        return line.toString();
+    }
+
+    /**
+     * Appends the same text as toString to a builder that can be reused across tasks.
+     *
+     * @param line the builder to append to.
+     */
+    void appendString(StringBuilder line) {
+        line.append("Task{id=").append(id)
+                .append(", text='").append(getText()).append('\'')
+                .append(", completed=").append(completed)
+                .append(", due='").append(getDue()).append('\'')
+                .append(", priority='").append(getPriority()).append('\'')
+                .append(", category='").append(getCategory()).append('\'')
+                .append('}');
     }
 
     /**
@@ -243,17 +473,30 @@ public class Task implements Comparable<Task>{
     @Override
     public int compareTo(Task other) {
         // Implement your sorting logic here; example by due date, then by priority
-        if (this.due != null && other.due != null) {
-            int dateComparison = this.due.compareTo(other.due);
-            if (dateComparison != 0) {
-                return dateComparison;
-            }
-        } else if (this.due != null) {
-            return -1;
-        } else if (other.due != null) {
+        if (this.due != other.due) {
+            return compareDue(this.due, other.due);
+        }
+        return Integer.compare(this.priority, other.priority);
+    }
+
+    /**
+     * Compares two due dates held as epoch days, a missing due date after every date.
+     *
+     * @param due the first epoch day, or NO_DUE_DATE.
+     * @param otherDue the second epoch day, or NO_DUE_DATE.
+     * @return a negative number, zero or a positive number as the first date is earlier, equal or later.
+     */
+    static int compareDue(int due, int otherDue) {
+        if (due == otherDue) {
+            return 0;
+        }
+        if (due == NO_DUE_DATE) {
             return 1;
         }
-        return this.priority.compareTo(other.priority);
+        if (otherDue == NO_DUE_DATE) {
+            return -1;
+        }
+        return Integer.compare(due, otherDue);
     }
 
 }
\ No newline at end of file
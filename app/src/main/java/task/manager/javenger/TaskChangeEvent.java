@@ -0,0 +1,107 @@
+package task.manager.javenger;
+
+/**
+ * TaskChangeEvent describes one change to the task list of a TaskManager: a task was added, completed or
+ * reopened, had another field changed, or was removed by a reload.
+ */
+public final class TaskChangeEvent {
+
+    /**
+     * Enumerates the kinds of change.
+     */
+    public enum Type {
+        /** The task was added, the event carries no field. */
+        ADDED,
+        /** The completion status of the task changed. */
+        COMPLETED,
+        /** A field other than the completion status changed. */
+        FIELD_CHANGED,
+        /** The task is no longer held, the event carries no field. */
+        REMOVED,
+        /**
+         * Every task was replaced by the tasks read from the CSV file, the event carries no task and no field.
+         * Listeners read the task list again instead of receiving an event per task.
+         */
+        RELOADED
+    }
+
+    private final Type type;
+    private final Task task;
+    private final TaskField field;
+    private final Object oldValue;
+    private final Object newValue;
+
+    /**
+     * Constructs a new TaskChangeEvent.
+     *
+     * @param type the kind of change.
+     * @param task the changed task, null for RELOADED.
+     * @param field the changed field, null for ADDED, REMOVED and RELOADED.
+     * @param oldValue the value of the field before the change.
+     * @param newValue the value of the field after the change.
+     */
+    TaskChangeEvent(Type type, Task task, TaskField field, Object oldValue, Object newValue) {
+        this.type = type;
+        this.task = task;
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the type of the event.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the changed task, it holds the values of the time the batch was flushed.
+     *
+     * @return the task, or null for RELOADED events.
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Gets the changed field.
+     *
+     * @return the field, or null for ADDED, REMOVED and RELOADED events.
+     */
+    public TaskField getField() {
+        return field;
+    }
+
+    /**
+     * Gets the value of the field before the first change of the batch.
+     *
+     * @return the old value, or null for ADDED, REMOVED and RELOADED events.
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Gets the value of the field after the last change of the batch.
+     *
+     * @return the new value, or null for ADDED, REMOVED and RELOADED events.
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Overrides the toString method to print an event.
+     */
+    @Override
+    public String toString() {
+        return "TaskChangeEvent{" +
+                "type=" + type +
+                (task != null ? ", id=" + task.getId() : "") +
+                (field != null ? ", field=" + field + ", oldValue=" + oldValue + ", newValue=" + newValue : "") +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package task.manager.javenger;
+
+import java.util.List;
+
+/**
+ * Receives the changes made to the tasks of a TaskManager, one batch per flush.
+ */
+@FunctionalInterface
+public interface TaskChangeListener {
+
+    /**
+     * Called with the changes made since the previous flush, in the order they first happened.
+     *
+     * @param batch the coalesced change events, never empty.
+     */
+    void tasksChanged(List<TaskChangeEvent> batch);
+}
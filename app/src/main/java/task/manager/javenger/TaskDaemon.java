@@ -0,0 +1,238 @@
+package task.manager.javenger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TaskDaemon keeps a TaskManager in memory and runs command lines sent to it over a Unix domain socket, so that a
+ * command costs neither a JVM start nor a CSV load. Each connection is served by its own virtual thread and may
+ * send any number of command lines.
+ *
+ * <p>The protocol is line based and UTF-8 encoded. The client sends one command line per line, in the syntax of the
+ * interactive CLI. The daemon answers each with the lines the commands printed prefixed with "1 ", the error
+ * messages prefixed with "2 ", and a line "0" that ends the answer. A line runs as one batch, so it writes the CSV
+ * file at most once, and a failing command is reported without stopping the rest of the line.
+ */
+public class TaskDaemon implements Closeable {
+
+    private final TaskManager taskManager;
+    private final Path socketPath;
+    private final ServerSocketChannel server;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs a new TaskDaemon listening on the given socket. A socket file left behind by a daemon that is no
+     * longer running is replaced.
+     *
+     * @param taskManager the task manager to serve, it should be a ConcurrentTaskManager since connections are
+     *                    served concurrently.
+     * @param socketPath the path of the socket file.
+     * @throws IOException if another daemon listens on the socket or the socket cannot be bound.
+     */
+    public TaskDaemon(TaskManager taskManager, Path socketPath) throws IOException {
+        this.taskManager = taskManager;
+        this.socketPath = socketPath;
+        if (Files.exists(socketPath)) {
+            if (isListening(socketPath)) {
+                throw new IOException("A daemon is already listening on " + socketPath);
+            }
+            Files.delete(socketPath);
+        }
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+    }
+
+    /**
+     * Checks whether a daemon accepts connections on a socket.
+     *
+     * @param socketPath the path of the socket file.
+     * @return true if a connection could be opened.
+     */
+    private static boolean isListening(Path socketPath) {
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(socketPath)).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Accepts connections until the daemon is closed.
+     *
+     * @throws IOException if accepting a connection fails.
+     */
+    public void serve() throws IOException {
+        try {
+            while (true) {
+                SocketChannel connection = server.accept();
+                connections.submit(() -> serve(connection));
+            }
+        } catch (ClosedChannelException e) {
+            // closed by close()
+        }
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and removes the socket file.
+     *
+     * @throws IOException if the socket file cannot be removed.
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        connections.shutdownNow();
+        Files.deleteIfExists(socketPath);
+    }
+
+    /**
+     * Answers the command lines of one connection until the client closes it.
+     *
+     * @param connection the connection.
+     */
+    private void serve(SocketChannel connection) {
+        try (connection;
+             BufferedReader in = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(Channels.newWriter(connection, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                answer(line, out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client went away, nothing to answer
+        }
+    }
+
+    /**
+     * Runs one command line and writes the answer.
+     *
+     * @param line the command line.
+     * @param out the connection to answer on.
+     * @throws IOException if the answer cannot be written.
+     */
+    private void answer(String line, Writer out) throws IOException {
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        PrintStream output = new PrintStream(printed, false, StandardCharsets.UTF_8);
+        List<String> errors = new ArrayList<>();
+        try {
+            List<Command> commands = CommandParser.parse(line);
+            taskManager.reloadIfChanged();
+            if (commands.stream().allMatch(Command::isReadOnly)) {
+                execute(commands, output, errors);
+            } else {
+                taskManager.runBatch(() -> execute(commands, output, errors));
+            }
+        } catch (IllegalArgumentException e) {
+            errors.add(errorMessage(e));
+        }
+        output.flush();
+        for (String printedLine : printed.toString(StandardCharsets.UTF_8).lines().toList()) {
+            out.write("1 " + printedLine + "\n");
+        }
+        for (String error : errors) {
+            out.write("2 " + error + "\n");
+        }
+        out.write("0\n");
+    }
+
+    /**
+     * Runs commands, collecting the message of each failing one.
+     *
+     * @param commands the commands.
+     * @param output the stream the commands print to.
+     * @param errors the list to add the error messages to.
+     */
+    private void execute(List<Command> commands, PrintStream output, List<String> errors) {
+        for (Command command : commands) {
+            try {
+                command.execute(taskManager, output);
+            } catch (RuntimeException e) {
+                errors.add(errorMessage(e));
+            }
+        }
+    }
+
+    /**
+     * Gets the message of a failed command as one line of the protocol.
+     *
+     * @param e the exception thrown by the command.
+     * @return the message with line breaks replaced by spaces, or the exception itself if it has no message.
+     */
+    static String errorMessage(RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.toString();
+        return message.replace("\r\n", " ").replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Client is a connection to a running TaskDaemon.
+     */
+    public static class Client implements Closeable {
+        private final SocketChannel connection;
+        private final BufferedReader in;
+        private final Writer out;
+
+        /**
+         * Connects to a daemon.
+         *
+         * @param socketPath the path of the socket file of the daemon.
+         * @throws IOException if no daemon listens on the socket.
+         */
+        public Client(Path socketPath) throws IOException {
+            connection = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+            in = new BufferedReader(Channels.newReader(connection, StandardCharsets.UTF_8));
+            out = new BufferedWriter(Channels.newWriter(connection, StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Runs a command line on the daemon and prints its answer.
+         *
+         * @param line the command line.
+         * @param output the stream to print the output of the commands to.
+         * @param error the stream to print the error messages to.
+         * @return the number of error messages.
+         * @throws IOException if the connection is lost.
+         */
+        public int send(String line, PrintStream output, PrintStream error) throws IOException {
+            out.write(line.replace('\n', ' ') + "\n");
+            out.flush();
+            int errors = 0;
+            String answer;
+            while ((answer = in.readLine()) != null && !answer.equals("0")) {
+                if (answer.startsWith("2 ")) {
+                    error.println(answer.substring(2));
+                    errors++;
+                } else {
+                    output.println(answer.substring(2));
+                }
+            }
+            if (answer == null) {
+                throw new IOException("The daemon closed the connection.");
+            }
+            return errors;
+        }
+
+        @Override
+        public void close() throws IOException {
+            connection.close();
+        }
+    }
+}
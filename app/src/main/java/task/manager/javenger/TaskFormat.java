@@ -0,0 +1,32 @@
+package task.manager.javenger;
+
+import java.util.Locale;
+
+/**
+ * Enumerates the output formats of displayed tasks.
+ */
+public enum TaskFormat {
+    /** One Task.toString per line. */
+    PLAIN,
+    /** A table with a header and aligned columns. */
+    TABLE,
+    /** The CSV file format, with a header. */
+    CSV,
+    /** One JSON object per line. */
+    NDJSON;
+
+    /**
+     * Gets the format with the given name, ignoring case.
+     *
+     * @param name the name of the format.
+     * @return the format.
+     * @throws IllegalArgumentException if no format has the name.
+     */
+    public static TaskFormat getFormat(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format: " + name);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package task.manager.javenger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TaskHttpServer exposes a TaskManager as a JSON API over HTTP. Every request runs on its own virtual thread, so
+ * many clients can be served at once. A task list is taken from the TaskManager as one list, or one page of it,
+ * and then encoded into the response, so paging with pageSize bounds the memory a request needs.
+ *
+ * <ul>
+ * <li>GET /tasks lists tasks. The parameters completed, category, priority, dueFrom, dueTo and search filter the
+ * list, sort orders it by due, priority, next-due or highest-priority, and limit bounds it. With pageSize, and after
+ * for the following pages, the list is paged and the cursor of the next page is sent in the Next-Cursor header.</li>
+ * <li>GET /tasks/{id} gets a task.</li>
+ * <li>POST /tasks adds a task from a JSON object with text and optionally completed, due, priority and category. The
+ * text cannot contain line breaks and the category neither commas nor line breaks.</li>
+ * <li>POST /tasks/{id}/complete marks a task as completed.</li>
+ * <li>GET /stats gets the aggregate counters.</li>
+ * </ul>
+ *
+ * <p>Errors are answered with a status code and a JSON object with an error message.
+ */
+public class TaskHttpServer {
+
+    private final TaskManager taskManager;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs a new TaskHttpServer, it starts serving when start is called.
+     *
+     * @param taskManager the task manager to serve, it should be a ConcurrentTaskManager since requests are
+     *                    served concurrently.
+     * @param address the address to listen on, port 0 picks a free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public TaskHttpServer(TaskManager taskManager, InetSocketAddress address) throws IOException {
+        this.taskManager = taskManager;
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops serving, waiting at most the given time for running requests to finish.
+     *
+     * @param delaySeconds the maximum time to wait in seconds.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the address the server listens on.
+     *
+     * @return the address.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                routeTasks(exchange);
+            } catch (IllegalArgumentException e) {
+                // thrown while reading the request, before any response was sent
+                sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                sendServerError(exchange, e);
+            }
+        }
+    }
+
+    private void routeTasks(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String method = exchange.getRequestMethod();
+        if (path.length < 2 || !path[1].equals("tasks") || path.length > 4) {
+            sendError(exchange, 404, "Not found.");
+        } else if (path.length == 2 && method.equals("GET")) {
+            listTasks(exchange);
+        } else if (path.length == 2 && method.equals("POST")) {
+            addTask(exchange);
+        } else if (path.length == 3 && method.equals("GET")) {
+            Task task = taskManager.findTaskById(parseId(path[2]));
+            if (task == null) {
+                sendError(exchange, 404, "Task ID " + path[2] + " does not exist.");
+            } else {
+                sendTask(exchange, 200, task);
+            }
+        } else if (path.length == 4 && path[3].equals("complete") && method.equals("POST")) {
+            completeTask(exchange, parseId(path[2]));
+        } else {
+            sendError(exchange, 405, "Method " + method + " is not allowed.");
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Method " + exchange.getRequestMethod() + " is not allowed.");
+                return;
+            }
+            try {
+                Writer out = startJson(exchange, 200);
+                Json.writeStats(taskManager.getStats(), out);
+                out.flush();
+            } catch (RuntimeException e) {
+                sendServerError(exchange, e);
+            }
+        }
+    }
+
+    /**
+     * Sends the tasks matching the query parameters as a JSON array.
+     *
+     * @param exchange the request.
+     * @throws IOException if the response cannot be written.
+     */
+    private void listTasks(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+        TaskQuery query = new TaskQuery()
+                .completed(parameters.containsKey("completed") ? parseBoolean(parameters.get("completed")) : null)
+                .category(parameters.get("category"))
+                .priority(parameters.containsKey("priority") ? parsePriority(parameters.get("priority")) : null)
+                .dueBetween(parseDate(parameters.get("dueFrom")), parseDate(parameters.get("dueTo")))
+                .text(parameters.get("search"))
+                .orderBy(parseOrder(parameters.get("sort")))
+                .limit(parameters.containsKey("limit") ? parseInt(parameters.get("limit"), "limit") : null);
+        List<Task> tasks;
+        if (parameters.containsKey("pageSize")) {
+            TaskPage page = taskManager.getPage(query, parseInt(parameters.get("pageSize"), "pageSize"), parameters.get("after"));
+            if (page.getNextCursor() != null) {
+                exchange.getResponseHeaders().set("Next-Cursor", page.getNextCursor());
+            }
+            tasks = page.getTasks();
+        } else {
+            tasks = taskManager.query(query);
+        }
+        Writer out = startJson(exchange, 200);
+        out.write('[');
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Json.writeTask(tasks.get(i), out);
+        }
+        out.write(']');
+        out.flush();
+    }
+
+    /**
+     * Adds the task described by the JSON body of the request.
+     *
+     * @param exchange the request.
+     * @throws IOException if the request cannot be read or the response cannot be written.
+     */
+    private void addTask(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = Json.parseObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        if (!(body.get("text") instanceof String text)) {
+            throw new IllegalArgumentException("Missing task description.");
+        }
+        boolean completed = Boolean.TRUE.equals(body.get("completed"));
+        LocalDate due = body.get("due") != null ? parseDate(body.get("due").toString()) : null;
+        Priority priority = body.get("priority") != null ? parsePriority(body.get("priority").toString()) : null;
+        Object category = body.get("category");
+        Task added = taskManager.addTask(text, completed, due, priority, category != null ? category.toString() : null);
+        sendTask(exchange, 201, added);
+    }
+
+    private void completeTask(HttpExchange exchange, int id) throws IOException {
+        Task[] completed = new Task[1];
+        taskManager.runBatch(() -> {
+            Task task = taskManager.findTaskById(id);
+            if (task != null) {
+                task.markCompleted(true);
+                // the held task may change again once the batch releases the lock
+                completed[0] = task.copy();
+            }
+        });
+        if (completed[0] == null) {
+            sendError(exchange, 404, "Task ID " + id + " does not exist.");
+        } else {
+            sendTask(exchange, 200, completed[0]);
+        }
+    }
+
+    private static void sendTask(HttpExchange exchange, int status, Task task) throws IOException {
+        Writer out = startJson(exchange, status);
+        Json.writeTask(task, out);
+        out.flush();
+    }
+
+    /**
+     * Answers a request that failed unexpectedly with status 500 and a JSON error. If the response was already
+     * started, the exception is thrown again, so the connection is closed and the client sees a broken response.
+     *
+     * @param exchange the request.
+     * @param e the exception.
+     * @throws IOException if the response cannot be written.
+     */
+    private static void sendServerError(HttpExchange exchange, RuntimeException e) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            throw e;
+        }
+        sendError(exchange, 500, e.getMessage() != null ? e.getMessage() : e.toString());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Writer out = startJson(exchange, status);
+        out.write("{\"error\":");
+        Json.writeString(message, out);
+        out.write('}');
+        out.flush();
+    }
+
+    /**
+     * Sends the response headers of a JSON response of unknown length, so the body is streamed in chunks.
+     *
+     * @param exchange the request.
+     * @param status the status code.
+     * @return a buffered writer over the response body.
+     * @throws IOException if the headers cannot be sent.
+     */
+    private static Writer startJson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static Map<String, String> parseParameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals >= 0 ? pair.substring(0, equals) : pair, StandardCharsets.UTF_8);
+            String value = equals >= 0 ? URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8) : "";
+            parameters.put(name, value);
+        }
+        return parameters;
+    }
+
+    private static int parseId(String id) {
+        return parseInt(id, "task ID");
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (!value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException("Invalid completed: " + value);
+        }
+        return value.equals("true");
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + value);
+        }
+    }
+
+    /**
+     * Parses a priority given by name, such as HIGH, or by value, 1 to 3.
+     *
+     * @param value the priority.
+     * @return the priority.
+     */
+    private static Priority parsePriority(String value) {
+        try {
+            return Priority.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Priority.getPriority(parseInt(value, "priority"));
+        }
+    }
+
+    private static TaskOrder parseOrder(String value) {
+        if (value == null) {
+            return TaskOrder.NONE;
+        }
+        return switch (value) {
+            case "due" -> TaskOrder.DUE_DATE;
+            case "priority" -> TaskOrder.PRIORITY;
+            case "next-due" -> TaskOrder.NEXT_DUE;
+            case "highest-priority" -> TaskOrder.HIGHEST_PRIORITY;
+            default -> throw new IllegalArgumentException("Invalid sort: " + value);
+        };
+    }
+}
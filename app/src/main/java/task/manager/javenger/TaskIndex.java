@@ -0,0 +1,323 @@
+package task.manager.javenger;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * TaskIndex keeps secondary indexes over the task list of a TaskManager and plans queries on them.
+ * Every index maps an attribute value to the positions of the tasks holding it, so intersections and
+ * estimates are cheap.
+ */
+class TaskIndex {
+    private final BitSet completed = new BitSet();
+    private final BitSet[] byPriority = new BitSet[Priority.values().length];
+    private final CategoryDictionary categories = CategoryDictionary.SHARED;
+    private BitSet[] byCategory = new BitSet[0];
+    private final TreeMap<Integer, BitSet> byDue = new TreeMap<>();
+    private final BitSet dated = new BitSet();
+    private final TextIndex text = new TextIndex();
+    private int size;
+
+    /**
+     * Constructs a new empty TaskIndex.
+     */
+    TaskIndex() {
+        for (int i = 0; i < byPriority.length; i++) {
+            byPriority[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Removes every task from the indexes.
+     */
+    void clear() {
+        completed.clear();
+        for (BitSet priority : byPriority) {
+            priority.clear();
+        }
+        byCategory = new BitSet[0];
+        byDue.clear();
+        dated.clear();
+        text.clear();
+        size = 0;
+    }
+
+    /**
+     * Adds a task at its position to every index.
+     *
+     * @param task the task, its position must already be set.
+     */
+    void add(Task task) {
+        int position = task.getPosition();
+        completed.set(position, task.isCompleted());
+        byPriority[task.getPriority().ordinal()].set(position);
+        if (task.getCategoryCode() != CategoryDictionary.NO_CATEGORY) {
+            categoryPositions(task.getCategoryCode()).set(position);
+        }
+        if (task.getDueEpochDay() != Task.NO_DUE_DATE) {
+            byDue.computeIfAbsent(task.getDueEpochDay(), k -> new BitSet()).set(position);
+            dated.set(position);
+        }
+        text.add(position, task.getText());
+        size = Math.max(size, position + 1);
+    }
+
+    /**
+     * Moves a changed task from the entry of its old value to the entry of its new value.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void update(Task task, TaskField field, Object oldValue) {
+        int position = task.getPosition();
+        switch (field) {
+            case TEXT:
+                text.update(position, (String) oldValue, task.getText());
+                break;
+            case COMPLETED:
+                completed.set(position, task.isCompleted());
+                break;
+            case PRIORITY:
+                byPriority[((Priority) oldValue).ordinal()].clear(position);
+                byPriority[task.getPriority().ordinal()].set(position);
+                break;
+            case CATEGORY:
+                int oldCode = categories.find((String) oldValue);
+                if (oldCode != CategoryDictionary.NO_CATEGORY) {
+                    categoryPositions(oldCode).clear(position);
+                }
+                if (task.getCategoryCode() != CategoryDictionary.NO_CATEGORY) {
+                    categoryPositions(task.getCategoryCode()).set(position);
+                }
+                break;
+            case DUE:
+                if (oldValue != null) {
+                    remove(byDue, Task.toEpochDay((LocalDate) oldValue), position);
+                }
+                if (task.getDueEpochDay() != Task.NO_DUE_DATE) {
+                    byDue.computeIfAbsent(task.getDueEpochDay(), k -> new BitSet()).set(position);
+                }
+                dated.set(position, task.getDueEpochDay() != Task.NO_DUE_DATE);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Chooses the cheapest way to find the tasks matching the query: the index with the fewest candidate
+     * positions, or a full scan if no index narrows the search. A text search never scans, matching a description
+     * without the index means splitting it into words.
+     *
+     * @param query the query to plan.
+     * @return the chosen plan.
+     */
+    QueryPlan plan(TaskQuery query) {
+        QueryPlan best = QueryPlan.scan(size);
+        if (query.getText() != null) {
+            String terms = query.getText();
+            best = new QueryPlan("text", Math.min(text.estimate(terms), size), () -> text.search(terms));
+        }
+        if (query.getCategory() != null) {
+            BitSet positions = categoryPositions(query);
+            best = cheaper(best, new QueryPlan("category", positions.cardinality(), () -> positions));
+        }
+        if (query.getPriority() != null) {
+            BitSet positions = byPriority[query.getPriority().ordinal()];
+            best = cheaper(best, new QueryPlan("priority", positions.cardinality(), () -> positions));
+        }
+        if (query.getCompleted() != null) {
+            int completedCount = completed.cardinality();
+            if (query.getCompleted()) {
+                best = cheaper(best, new QueryPlan("completed", completedCount, () -> completed));
+            } else {
+                best = cheaper(best, new QueryPlan("completed", size - completedCount, () -> {
+                    BitSet incomplete = (BitSet) completed.clone();
+                    incomplete.flip(0, size);
+                    return incomplete;
+                }));
+            }
+        }
+        if (query.hasDueRange()) {
+            NavigableMap<Integer, BitSet> range = dueRange(query.getDueFrom(), query.getDueTo());
+            int estimate = 0;
+            for (BitSet positions : range.values()) {
+                estimate += positions.cardinality();
+            }
+            best = cheaper(best, new QueryPlan("due", estimate, () -> {
+                BitSet union = new BitSet();
+                for (BitSet positions : range.values()) {
+                    union.or(positions);
+                }
+                return union;
+            }));
+        }
+        return best;
+    }
+
+    /**
+     * Checks whether the indexes can list every position in the given order.
+     *
+     * @param order the ordering.
+     * @return true if walk supports the ordering.
+     */
+    boolean canWalk(TaskOrder order) {
+        return order == TaskOrder.PRIORITY || order == TaskOrder.DUE_DATE;
+    }
+
+    /**
+     * Visits the positions of every task in the given order, ties in list order, starting right after the anchor.
+     * Only the positions actually visited are touched, so reading a page costs about the size of the page.
+     *
+     * @param order the ordering, PRIORITY or DUE_DATE.
+     * @param anchor the task to start after, or null to start at the beginning.
+     * @param visitor called with every position, returns false to stop the walk.
+     */
+    void walk(TaskOrder order, Task anchor, IntPredicate visitor) {
+        int from = (anchor != null) ? anchor.getPosition() + 1 : 0;
+        if (order == TaskOrder.PRIORITY) {
+            int first = (anchor != null) ? anchor.getPriority().ordinal() : 0;
+            for (int p = first; p < byPriority.length; p++) {
+                if (!visit(byPriority[p], (p == first) ? from : 0, visitor)) {
+                    return;
+                }
+            }
+        } else if (order == TaskOrder.DUE_DATE) {
+            int anchorDue = (anchor != null) ? anchor.getDueEpochDay() : Task.NO_DUE_DATE;
+            if (anchor == null || anchorDue != Task.NO_DUE_DATE) {
+                NavigableMap<Integer, BitSet> dates = (anchor != null) ? byDue.tailMap(anchorDue, true) : byDue;
+                for (Map.Entry<Integer, BitSet> entry : dates.entrySet()) {
+                    boolean anchorDate = anchor != null && entry.getKey() == anchorDue;
+                    if (!visit(entry.getValue(), anchorDate ? from : 0, visitor)) {
+                        return;
+                    }
+                }
+                from = 0;
+            }
+            for (int i = dated.nextClearBit(from); i < size; i = dated.nextClearBit(i + 1)) {
+                if (!visitor.test(i)) {
+                    return;
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot walk the indexes in order " + order);
+        }
+    }
+
+    /**
+     * Visits the set positions of an index entry.
+     *
+     * @param positions the index entry.
+     * @param from the first position to visit.
+     * @param visitor called with every position, returns false to stop the walk.
+     * @return false if the visitor stopped the walk.
+     */
+    private static boolean visit(BitSet positions, int from, IntPredicate visitor) {
+        for (int i = positions.nextSetBit(from); i >= 0; i = positions.nextSetBit(i + 1)) {
+            if (!visitor.test(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the entries of the due date index inside the range.
+     *
+     * @param from the earliest due date, null for no lower bound.
+     * @param to the latest due date, null for no upper bound.
+     * @return a view of the due date index.
+     */
+    private NavigableMap<Integer, BitSet> dueRange(LocalDate from, LocalDate to) {
+        if (from == null) {
+            return byDue.headMap(clampEpochDay(to), true);
+        }
+        if (to == null) {
+            return byDue.tailMap(clampEpochDay(from), true);
+        }
+        return byDue.subMap(clampEpochDay(from), true, clampEpochDay(to), true);
+    }
+
+    /**
+     * Converts a bound of a due date range to an epoch day, limiting dates beyond the range of the index to its
+     * ends.
+     *
+     * @param date the bound.
+     * @return the epoch day.
+     */
+    private static int clampEpochDay(LocalDate date) {
+        return (int) Math.max(Task.NO_DUE_DATE + 1L, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    /**
+     * Picks the plan visiting fewer tasks, preferring the current one on a tie.
+     *
+     * @param current the best plan so far.
+     * @param candidate the plan to compare with.
+     * @return the cheaper plan.
+     */
+    private static QueryPlan cheaper(QueryPlan current, QueryPlan candidate) {
+        return (candidate.getEstimatedRows() < current.getEstimatedRows()) ? candidate : current;
+    }
+
+    /**
+     * Clears a position from an index entry and drops the entry once it is empty.
+     *
+     * @param index the index to update.
+     * @param key the key of the entry.
+     * @param position the position to clear.
+     */
+    private static <K> void remove(Map<K, BitSet> index, K key, int position) {
+        BitSet positions = index.get(key);
+        if (positions != null) {
+            positions.clear(position);
+            if (positions.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Gets the positions of the tasks in a category, creating the entry if the code is new.
+     *
+     * @param code the dictionary code of the category.
+     * @return the live positions of the category.
+     */
+    private BitSet categoryPositions(int code) {
+        if (code >= byCategory.length) {
+            int length = byCategory.length;
+            byCategory = Arrays.copyOf(byCategory, Math.max(code + 1, length * 2));
+            for (int i = length; i < byCategory.length; i++) {
+                byCategory[i] = new BitSet();
+            }
+        }
+        return byCategory[code];
+    }
+
+    /**
+     * Gets the positions of the tasks in the category of a query. An exact category is a single dictionary code,
+     * a case-insensitive one is the union of the codes of every spelling seen.
+     *
+     * @param query the query, its category must be set.
+     * @return the positions, not to be modified.
+     */
+    private BitSet categoryPositions(TaskQuery query) {
+        if (!query.isIgnoreCategoryCase()) {
+            int code = categories.find(query.getCategory());
+            return (code != CategoryDictionary.NO_CATEGORY) ? categoryPositions(code) : new BitSet();
+        }
+        BitSet positions = new BitSet();
+        for (int code = 0; code < categories.size(); code++) {
+            if (query.getCategory().equalsIgnoreCase(categories.name(code))) {
+                positions.or(categoryPositions(code));
+            }
+        }
+        return positions;
+    }
+}
@@ -2,7 +2,15 @@ package task.manager.javenger;
 
 import java.io.*;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -15,8 +23,60 @@ public class TaskManager {
     private static final String CSV_DELIMITER = ",";
     private static final String REPLACEMENT_CHAR = "�";
     private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/dd/MM");
-    private List<Task> tasks;
+    static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+    private volatile TaskVector tasks = new TaskVector();
     private Path csvPath;
+    private TaskIndex index = new TaskIndex();
+    private final TaskStats stats = new TaskStats();
+    private final QueryCache cache = new QueryCache();
+    private long version;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private final TaskObserver observer = new TaskObserver() {
+        @Override
+        public void taskChanging(Task task, TaskField field) {
+            TaskManager.this.taskChanging(task, field);
+        }
+
+        @Override
+        public void taskChanged(Task task, TaskField field, Object oldValue) {
+            TaskManager.this.taskChanged(task, field, oldValue);
+        }
+    };
+    private TextArena textArena;
+    private final ChangeBatcher changes = new ChangeBatcher();
+    private Path loadedPath;
+    private FileTime loadedModifiedTime;
+    private long loadedSize;
+    private long savedVersion;
+    private Map<Integer, Task> byId = new HashMap<>();
+    private int maxId;
+    private int batchDepth;
+    private boolean batchWritePending;
+    private int savedCount;
+    // position of the first saved line changed since the last save, savedCount if none
+    private int firstChangedLine;
+    private List<FieldChange> undoLog;
+    private int transactionStart;
+
+    /**
+     * A field change made in a transaction, undone by setting the old value back.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    private record FieldChange(Task task, TaskField field, Object oldValue) {
+        void undo() {
+            switch (field) {
+                case ID -> task.setId((Integer) oldValue);
+                case TEXT -> task.setText((String) oldValue);
+                case COMPLETED -> task.markCompleted((Boolean) oldValue);
+                case DUE -> task.setDue((LocalDate) oldValue);
+                case PRIORITY -> task.setPriority((Priority) oldValue);
+                case CATEGORY -> task.setCategory((String) oldValue);
+            }
+        }
+    }
 
     /**
      * Constructs a new TaskManager insatnce and loads tasks from the specified CSV file with its csvpath.
@@ -24,7 +84,6 @@ public class TaskManager {
      * @param csvFile The path to the CSV file.
      */
     public TaskManager(String csvFile) {
-        tasks = new ArrayList<>();
         this.csvPath = Paths.get(csvFile); 
         loadTasksFromCSV();
     }
@@ -38,7 +97,7 @@ public class TaskManager {
         Task newTask = new Task(text);
         int id = generateNewId();
         newTask.setId(id);
-        tasks.add(newTask);
+        attach(newTask);
         updateCSV();
     }
 
@@ -50,52 +109,511 @@ public class TaskManager {
      * @param due The due date of the task.This field is optional.
      * @param priority The priority of the task. This field is optional. If no priority is specified, the Task can be treated as LOW.
      * @param category  a user-specified String that can be used to group related Tasks
+     * @return the new task.
      */
-    public void addTask(String text, boolean completed, LocalDate due, Priority priority, String category) {
+    public Task addTask(String text, boolean completed, LocalDate due, Priority priority, String category) {
         int id = generateNewId();
         Task newTask = new Task(id,text,completed,due,priority,category);
-        tasks.add(newTask);
+        attach(newTask);
         updateCSV();
+        return newTask;
     }
     
     /**
      * Reads all tasks from the CSV file into the organized task list. all tasks are cleared before loading.
+     * The new task list and its indexes are built aside and published at once, so readers of getTasks see either
+     * the old tasks or the new ones, never a partly loaded list. The old tasks are detached only afterwards.
      */
     public void loadTasksFromCSV() { 
-        tasks.clear();
+        TaskVector loaded = new TaskVector();
+        TaskIndex loadedIndex = new TaskIndex();
+        TaskStats loadedStats = new TaskStats();
+        Map<Integer, Task> loadedById = new HashMap<>();
+        TextArena loadedArena = (textArena != null) ? new TextArena() : null;
+        int loadedMaxId = 0;
+        rememberFileState();
         try (BufferedReader br = Files.newBufferedReader(csvPath)) {
             String headerLine = br.readLine();
-            if (headerLine == null) { 
-                return;
-            }
             String line;
-            while ((line = br.readLine()) != null) {
+            while (headerLine != null && (line = br.readLine()) != null) {
                 Task task = Task.readFromCsv(line);
                 if (task != null) { 
-                    tasks.add(task);
+                    task.setPosition(loaded.size());
+                    loaded = loaded.append(task);
+                    if (loadedArena != null) {
+                        task.setTextArena(loadedArena);
+                    }
+                    task.setObserver(observer);
+                    loadedById.putIfAbsent(task.getId(), task);
+                    loadedMaxId = Math.max(loadedMaxId, task.getId());
+                    loadedIndex.add(task);
+                    loadedStats.add(task);
                 }
             }
         } catch (IOException e) {
             System.err.println("An error occurred while loading tasks from the CSV file: " + e.getMessage()+ ",Please check the file path and permissions");
             e.printStackTrace();
         }
+
+        TaskVector old = tasks;
+        tasks = loaded;
+        index = loadedIndex;
+        byId = loadedById;
+        maxId = loadedMaxId;
+        stats.replaceWith(loadedStats);
+        cache.clear();
+        // dropped tasks keep the old arena, which nothing writes any more, instead of copying every text back
+        textArena = loadedArena;
+        for (Task task : old) {
+            task.setObserver(null);
+            task.setPosition(-1);
+        }
+        changes.reloaded();
+        version++;
+        savedVersion = version;
+        savedCount = loaded.size();
+        firstChangedLine = savedCount;
+        if (undoLog != null) {
+            // the reloaded tasks are the state a failing transaction goes back to
+            undoLog.clear();
+            transactionStart = loaded.size();
+        }
+        changes.flush();
+    }
+
+    /**
+     * Reloads the tasks only if the CSV file was changed by someone else since it was last loaded or saved.
+     *
+     * @return true if the tasks were reloaded.
+     */
+    public boolean reloadIfChanged() {
+        if (!isFileChanged()) {
+            return false;
+        }
+        loadTasksFromCSV();
+        return true;
+    }
+
+    /**
+     * Checks whether the CSV file was changed by someone else since it was last loaded or saved.
+     *
+     * @return true if the file was changed or cannot be checked.
+     */
+    boolean isFileChanged() {
+        try {
+            return !csvPath.equals(loadedPath) || !Files.getLastModifiedTime(csvPath).equals(loadedModifiedTime)
+                    || Files.size(csvPath) != loadedSize;
+        } catch (IOException e) {
+            // cannot tell, reload to be safe
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether the tasks were changed since they were last loaded or saved.
+     *
+     * @return true if updateCSV has changes to write.
+     */
+    public boolean isModified() {
+        return version != savedVersion;
+    }
+
+    /**
+     * Records the path, modification time and size of the CSV file as last loaded or saved.
+     */
+    private void rememberFileState() {
+        loadedPath = csvPath;
+        try {
+            loadedModifiedTime = Files.getLastModifiedTime(csvPath);
+            loadedSize = Files.size(csvPath);
+        } catch (IOException e) {
+            loadedModifiedTime = null;
+        }
+    }
+
+    /**
+     * Appends a task to the task list and starts maintaining the indexes for it.
+     *
+     * @param task the task to append.
+     */
+    private void attach(Task task) {
+        task.setPosition(tasks.size());
+        tasks = tasks.append(task);
+        task.setObserver(observer);
+        if (textArena != null) {
+            task.setTextArena(textArena);
+        }
+        byId.putIfAbsent(task.getId(), task);
+        maxId = Math.max(maxId, task.getId());
+        index.add(task);
+        stats.add(task);
+        cache.taskAdded(task);
+        changes.added(task);
+        version++;
+    }
+
+    /**
+     * Called before a held task changes. A TaskManager accepts every change, subclasses may refuse changes made
+     * at the wrong time.
+     *
+     * @param task the task about to change.
+     * @param field the field about to change.
+     * @throws IllegalStateException if the task cannot be changed now.
+     */
+    void taskChanging(Task task, TaskField field) {
+    }
+
+    /**
+     * Keeps the indexes, counters and cached query results up to date when a field of a held task changes.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void taskChanged(Task task, TaskField field, Object oldValue) {
+        if (field == TaskField.ID) {
+            idChanged(task, (Integer) oldValue);
+        }
+        if (undoLog != null && task.getPosition() < transactionStart) {
+            undoLog.add(new FieldChange(task, field, oldValue));
+        }
+        if (task.getPosition() < firstChangedLine) {
+            // a saved line changes, the next save rewrites the file from this line on
+            firstChangedLine = task.getPosition();
+        }
+        index.update(task, field, oldValue);
+        stats.update(task, field, oldValue);
+        cache.taskChanged(task, field, oldValue);
+        changes.changed(task, field, oldValue);
+        version++;
+        if (batchDepth == 0 && changes.isDue()) {
+            changes.flush();
+        }
+    }
+
+    /**
+     * Keeps the ID lookup table and the largest ID up to date when the ID of a held task changes.
+     *
+     * @param task the changed task.
+     * @param oldId the ID of the task before the change.
+     */
+    private void idChanged(Task task, int oldId) {
+        byId.remove(oldId, task);
+        byId.putIfAbsent(task.getId(), task);
+        if (task.getId() > maxId) {
+            maxId = task.getId();
+        } else if (oldId == maxId) {
+            maxId = 0;
+            for (Task held : tasks) {
+                maxId = Math.max(maxId, held.getId());
+            }
+        }
+    }
+
+    /**
+     * Stores the texts of the held tasks off-heap, in a direct buffer decoded on every getText call, or moves them
+     * back onto the heap. Long-running processes holding many tasks keep their old generation small this way, at the
+     * cost of decoding a text each time it is read. Tasks dropped by a reload keep the arena they were loaded
+     * with, it is released once they are no longer referenced.
+     *
+     * @param offHeap true to store task texts off-heap.
+     */
+    public void setOffHeapText(boolean offHeap) {
+        if (offHeap == (textArena != null)) {
+            return;
+        }
+        TextArena arena = offHeap ? new TextArena() : null;
+        for (Task task : tasks) {
+            task.setTextArena(arena);
+        }
+        textArena = arena;
+    }
+
+    /**
+     * Releases the off-heap bytes of texts that were replaced since the last compaction, if texts are off-heap.
+     */
+    public void compactText() {
+        if (textArena != null) {
+            textArena.compact();
+        }
+    }
+
+    /**
+     * Gets the off-heap text arena, for tests.
+     *
+     * @return the arena, or null if texts are on the heap.
+     */
+    TextArena getTextArena() {
+        return textArena;
+    }
+
+    /**
+     * Gets the modification version of the task list, it increases on every add, load and field change.
+     *
+     * @return the current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the bounds of the query result cache.
+     *
+     * @param maxEntries the maximum number of cached query results, 0 disables the cache.
+     * @param maxCachedTasks the maximum number of tasks held by all cached results together.
+     */
+    public void setQueryCacheBudget(int maxEntries, int maxCachedTasks) {
+        cache.setBudget(maxEntries, maxCachedTasks);
+    }
+
+    /**
+     * Registers a listener for the changes made to the tasks. Changes are collected and delivered as one batch
+     * whenever the tasks are written to or reloaded from the CSV file, flushChanges is called, or the time window
+     * set by setChangeWindow has passed. A reload is delivered as a single RELOADED event.
+     *
+     * @param listener the listener.
+     */
+    public void addChangeListener(TaskChangeListener listener) {
+        changes.addListener(listener);
+    }
+
+    /**
+     * Unregisters a change listener.
+     *
+     * @param listener the listener.
+     */
+    public void removeChangeListener(TaskChangeListener listener) {
+        changes.removeListener(listener);
+    }
+
+    /**
+     * Sets how long a change made outside a batch may wait before it is delivered to the change listeners. The
+     * window is checked when a task changes, since no thread is started for it, so the last changes before a quiet
+     * period are delivered at the next save or flushChanges call. By default changes wait for the next flush.
+     *
+     * @param millis the time window in milliseconds, 0 to deliver every change at once, negative for no window.
+     */
+    public void setChangeWindow(long millis) {
+        changes.setWindow(millis);
+    }
+
+    /**
+     * Delivers the changes collected since the last flush to the change listeners now.
+     */
+    public void flushChanges() {
+        changes.flush();
+    }
+
+    /**
+     * Gets the query result cache, for tests.
+     *
+     * @return the query result cache.
+     */
+    QueryCache getQueryCache() {
+        return cache;
     }
 
     /**
-     * Writes the updated tasks into CSV file
+     * Writes the updated tasks into CSV file. Nothing is written if no task changed since the tasks were last loaded
+     * or saved and the file is still as it was then. Otherwise, if the file is still as it was, it is cut after the
+     * last line before the first changed task, and only the lines from there on are written: added tasks are just
+     * appended, and changing a task near the end of a large file rewrites only its last lines. A file changed by
+     * someone else is rewritten entirely.
      */
     public void updateCSV() {
-        try (BufferedWriter bw = Files.newBufferedWriter(csvPath)) {
-            bw.write(String.join(CSV_DELIMITER, HEADER));
-            bw.newLine();
-            for (Task task : tasks) {
+        if (batchDepth > 0) {
+            batchWritePending = true;
+            return;
+        }
+        boolean fileUnchanged = !isFileChanged();
+        if (fileUnchanged && !isModified()) {
+            changes.flush();
+            return;
+        }
+        TaskVector snapshot = tasks;
+        int from = 0;
+        if (fileUnchanged && loadedSize > 0 && endsWithNewLine()) {
+            from = Math.min(firstChangedLine, savedCount);
+            if (from > 0 && from < savedCount && !truncateBeforeLine(from + 1)) {
+                from = 0;
+            }
+        }
+        try (BufferedWriter bw = (from > 0)
+                ? Files.newBufferedWriter(csvPath, StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(csvPath)) {
+            if (from == 0) {
+                bw.write(String.join(CSV_DELIMITER, HEADER));
+                bw.newLine();
+            }
+            for (int i = from; i < snapshot.size(); i++) {
+                Task task = snapshot.get(i);
                 bw.write(task.toCSVLine());
                 bw.newLine();
             }
         } catch (IOException e) {
             System.err.println("An error occurred while updating the CSV file: " + e.getMessage());
             e.printStackTrace();
+            changes.flush();
+            return;
+        }
+        rememberFileState();
+        savedVersion = version;
+        savedCount = snapshot.size();
+        firstChangedLine = savedCount;
+        changes.flush();
+    }
+
+    /**
+     * Cuts the CSV file at the start of a line, so that the lines from there on can be appended again.
+     *
+     * @param line the number of the line, the header being line 0.
+     * @return true if the file was cut, false if the line was not found or the file uses lone carriage returns as
+     *         line separators, then the whole file has to be written.
+     */
+    private boolean truncateBeforeLine(int line) {
+        long offset = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(csvPath), 64 * 1024)) {
+            int lines = 0;
+            int previous = -1;
+            int b;
+            while (lines < line && (b = in.read()) >= 0) {
+                if (previous == '\r' && b != '\n') {
+                    return false;
+                }
+                offset++;
+                if (b == '\n') {
+                    lines++;
+                }
+                previous = b;
+            }
+            if (lines < line) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.WRITE)) {
+            channel.truncate(offset);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the CSV file ends with a line separator, so that lines can be appended to it.
+     *
+     * @return true if the last byte of the file is a line feed.
+     */
+    private boolean endsWithNewLine() {
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            return channel.read(last, channel.size() - 1) == 1 && last.get(0) == '\n';
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs changes as one batch: adds and completions in it do not write the CSV file each, the tasks are written
+     * once when the batch ends, if anything changed, and the change listeners get all changes in one flush.
+     * Batches may be nested, only the outermost one writes. The changes are written even if the batch throws.
+     *
+     * @param batch the changes to make.
+     */
+    public void runBatch(Runnable batch) {
+        batchDepth++;
+        try {
+            batch.run();
+        } finally {
+            if (--batchDepth == 0 && (batchWritePending || isModified())) {
+                batchWritePending = false;
+                updateCSV();
+            }
+        }
+    }
+
+    /**
+     * Runs changes as one transaction: like a batch they are written once when the transaction ends, but if the
+     * transaction throws, every change made in it is undone and nothing is written. Field changes are undone by
+     * setting the old values back, added tasks are dropped and the indexes rebuilt without them. A transaction run
+     * inside another one joins it.
+     *
+     * @param transaction the changes to make.
+     */
+    public void runTransaction(Runnable transaction) {
+        if (undoLog != null) {
+            transaction.run();
+            return;
+        }
+        undoLog = new ArrayList<>();
+        transactionStart = tasks.size();
+        boolean wasModified = isModified();
+        int wasFirstChangedLine = firstChangedLine;
+        boolean wasWritePending = batchWritePending;
+        boolean failed = true;
+        batchDepth++;
+        try {
+            transaction.run();
+            failed = false;
+        } finally {
+            List<FieldChange> log = undoLog;
+            undoLog = null;
+            if (failed) {
+                rollback(log);
+                batchWritePending = wasWritePending;
+                if (!wasModified) {
+                    // back to the saved tasks, there is nothing to write
+                    savedVersion = version;
+                    firstChangedLine = wasFirstChangedLine;
+                }
+            }
+            if (--batchDepth == 0) {
+                if (failed) {
+                    changes.flush();
+                } else if (batchWritePending || isModified()) {
+                    batchWritePending = false;
+                    updateCSV();
+                }
+            }
+        }
+    }
+
+    /**
+     * Undoes the changes of a failed transaction, latest first.
+     *
+     * @param log the field changes made to tasks held before the transaction.
+     */
+    private void rollback(List<FieldChange> log) {
+        for (int i = log.size() - 1; i >= 0; i--) {
+            log.get(i).undo();
+        }
+        if (tasks.size() == transactionStart) {
+            return;
+        }
+        TaskVector added = tasks;
+        tasks = tasks.truncate(transactionStart);
+        for (int i = transactionStart; i < added.size(); i++) {
+            Task task = added.get(i);
+            task.setObserver(null);
+            task.setPosition(-1);
+            if (textArena != null) {
+                task.setTextArena(null);
+            }
+            byId.remove(task.getId(), task);
+            changes.removed(task);
+        }
+        // the indexes cannot drop a position, rebuild them from the kept tasks
+        index.clear();
+        stats.clear();
+        cache.clear();
+        maxId = 0;
+        for (Task task : tasks) {
+            index.add(task);
+            stats.add(task);
+            maxId = Math.max(maxId, task.getId());
         }
+        version++;
     }
 
     /**
@@ -114,6 +632,129 @@ public class TaskManager {
         updateCSV();
     }
 
+    /**
+     * Gets the tasks of a selection, each once, in the order of the task list, or in the order of the query of a
+     * selection without IDs.
+     *
+     * @param selection the selection.
+     * @return a new list of the selected tasks.
+     * @throws IllegalArgumentException if a task given by a single ID does not exist.
+     */
+    public List<Task> select(TaskSelection selection) {
+        if (!selection.hasIds()) {
+            return selection.getFilter() != null ? query(selection.getFilter()) : new ArrayList<>(tasks);
+        }
+        BitSet positions = new BitSet();
+        for (TaskSelection.Range range : selection.getRanges()) {
+            if (range.isSingle()) {
+                Task task = byId.get(range.from());
+                if (task == null) {
+                    throw new IllegalArgumentException("Task ID " + range.from() + " does not exist.");
+                }
+                positions.set(task.getPosition());
+                continue;
+            }
+            // IDs above the largest one cannot exist, so a range such as 1-999999999 stays cheap
+            for (int id = Math.max(range.from(), 1); id <= Math.min(range.to(), maxId); id++) {
+                Task task = byId.get(id);
+                if (task != null) {
+                    positions.set(task.getPosition());
+                }
+            }
+        }
+        TaskVector snapshot = tasks;
+        TaskQuery filter = selection.getFilter();
+        List<Task> selected = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            Task task = snapshot.get(position);
+            if (filter == null || filter.matches(task)) {
+                selected.add(task);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Changes every selected task in one pass, as one transaction: the CSV file is written once, and not at all if
+     * the update throws, in which case every task is left as it was.
+     *
+     * @param selection the tasks to change.
+     * @param update the change to make to each task.
+     * @return the number of selected tasks.
+     * @throws IllegalArgumentException if a task given by a single ID does not exist.
+     */
+    public int updateTasks(TaskSelection selection, Consumer<Task> update) {
+        int[] count = new int[1];
+        runTransaction(() -> {
+            List<Task> selected = select(selection);
+            for (Task task : selected) {
+                update.accept(task);
+            }
+            count[0] = selected.size();
+        });
+        return count[0];
+    }
+
+    /**
+     * Marks every selected task as completed and updates the CSV file once.
+     *
+     * @param selection the tasks to complete.
+     * @return the number of selected tasks.
+     * @throws IllegalArgumentException if a task given by a single ID does not exist.
+     */
+    public int completeTasks(TaskSelection selection) {
+        return updateTasks(selection, task -> task.markCompleted(true));
+    }
+
+    /**
+     * Moves every selected task to a category and updates the CSV file once.
+     *
+     * @param selection the tasks to change.
+     * @param category the category, null or empty to uncategorize the tasks.
+     * @return the number of selected tasks.
+     * @throws IllegalArgumentException if a task given by a single ID does not exist.
+     */
+    public int setCategory(TaskSelection selection, String category) {
+        return updateTasks(selection, task -> task.setCategory(category));
+    }
+
+    /**
+     * Sets the priority of every selected task and updates the CSV file once.
+     *
+     * @param selection the tasks to change.
+     * @param priority the priority, LOW if null.
+     * @return the number of selected tasks.
+     * @throws IllegalArgumentException if a task given by a single ID does not exist.
+     */
+    public int setPriority(TaskSelection selection, Priority priority) {
+        return updateTasks(selection, task -> task.setPriority(priority));
+    }
+
+    /**
+     * Moves the due date of every selected task by a number of days and updates the CSV file once. Tasks without a
+     * due date keep none.
+     *
+     * @param selection the tasks to change.
+     * @param days the number of days, negative to move the due dates earlier.
+     * @return the number of selected tasks.
+     * @throws IllegalArgumentException if a task given by a single ID does not exist.
+     */
+    public int shiftDue(TaskSelection selection, int days) {
+        return updateTasks(selection, task -> shiftDue(task, days));
+    }
+
+    /**
+     * Moves the due date of a task by a number of days, if it has one.
+     *
+     * @param task the task.
+     * @param days the number of days.
+     */
+    static void shiftDue(Task task, int days) {
+        if (task.getDue() != null) {
+            task.setDue(task.getDue().plusDays(days));
+        }
+    }
+
     /**
      * Finds and returns a task by its ID.
      *
@@ -121,12 +762,7 @@ public class TaskManager {
      * @return The found task, or null if no task with the given ID exists.
      */
     public Task findTaskById(int id) {
-        for (Task task : tasks) {
-            if (task.getId() == id) {
-                return task;
-            }
-        }
-        return null;
+        return byId.get(id);
     }
 
     /**
@@ -146,19 +782,14 @@ public class TaskManager {
      * @return current largest ID.
      */
     public int getCurrentMaxID(){
-        int maxId = 0;
-        for (Task task : tasks) {
-            if (task.getId() > maxId) {
-                maxId = task.getId();
-            }
-        }
         return maxId;
     }
 
     /**
-     * Getter method of List<Task> tasks.
-     * 
-     * @return List<Task> tasks.
+     * Gets a snapshot of the task list. The snapshot never changes, adds and reloads publish a new one, so it can
+     * be iterated while the task list is modified. The tasks in it are the live Task objects.
+     *
+     * @return a read-only snapshot of the tasks.
      */
     public List<Task> getTasks() {
         return tasks;
@@ -174,60 +805,420 @@ public class TaskManager {
      * @throws IllegalArgumentException if both sortByDate and sortByPriority are true.
      */
     public void displayTasks(Boolean showIncomplete, String showCategory, Boolean sortByDate, Boolean sortByPriority) {
-        List<Task> filteredTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            boolean isMatched = true;
-            if (showIncomplete && task.isCompleted()) {
-                isMatched = false;
+        displayTasks(showIncomplete, showCategory, sortByDate, sortByPriority, null);
+    }
+
+    /**
+     * Displays and filters tasks based by each attribute, printing at most limit tasks.
+     * When a limit is given only the first limit tasks of the ordering are selected, so the rest of the list is never sorted.
+     *
+     * @param showIncomplete If true, filter the list to only include incomplete Task.
+     * @param showCategory If true, Filter the list to only include Tasks with a particular category.
+     * @param sortByDate If true, Sort the Tasks by date (ascending).
+     * @param sortByPriority If true, Sort the Tasks by priority (ascending).
+     * @param limit the maximum number of tasks to display, or null to display every matching task.
+     * @throws IllegalArgumentException if both sortByDate and sortByPriority are true, or if limit is not positive.
+     */
+    public void displayTasks(Boolean showIncomplete, String showCategory, Boolean sortByDate, Boolean sortByPriority, Integer limit) {
+        TaskRenderer renderer = new TaskRenderer(System.out, TaskFormat.PLAIN);
+        renderer.render(query(displayQuery(showIncomplete, showCategory, sortByDate, sortByPriority).limit(limit)));
+        renderer.flush();
+    }
+
+    /**
+     * Displays one page of the filtered and sorted tasks.
+     *
+     * @param showIncomplete If true, filter the list to only include incomplete Task.
+     * @param showCategory If true, Filter the list to only include Tasks with a particular category.
+     * @param sortByDate If true, Sort the Tasks by date (ascending).
+     * @param sortByPriority If true, Sort the Tasks by priority (ascending).
+     * @param pageSize the maximum number of tasks to display.
+     * @param after the cursor returned with the previous page, or null for the first page.
+     * @return the cursor of the next page, or null if this is the last page.
+     * @throws IllegalArgumentException if both sortByDate and sortByPriority are true, or if pageSize or after is invalid.
+     */
+    public String displayPage(Boolean showIncomplete, String showCategory, Boolean sortByDate, Boolean sortByPriority, int pageSize, String after) {
+        TaskPage page = getPage(displayQuery(showIncomplete, showCategory, sortByDate, sortByPriority), pageSize, after);
+        TaskRenderer renderer = new TaskRenderer(System.out, TaskFormat.PLAIN);
+        renderer.render(page.getTasks());
+        renderer.flush();
+        return page.getNextCursor();
+    }
+
+    /**
+     * Builds the query behind the display options.
+     *
+     * @param showIncomplete If true, filter the list to only include incomplete Task.
+     * @param showCategory If true, Filter the list to only include Tasks with a particular category.
+     * @param sortByDate If true, Sort the Tasks by date (ascending).
+     * @param sortByPriority If true, Sort the Tasks by priority (ascending).
+     * @return the query of the display options.
+     * @throws IllegalArgumentException if both sortByDate and sortByPriority are true.
+     */
+    static TaskQuery displayQuery(Boolean showIncomplete, String showCategory, Boolean sortByDate, Boolean sortByPriority) {
+        if (Boolean.TRUE.equals(sortByDate) && Boolean.TRUE.equals(sortByPriority)) {
+            throw new IllegalArgumentException("A Task cannot sort by both date and priority simultaneously.");
+        }
+        TaskQuery query = new TaskQuery()
+                .completed(Boolean.TRUE.equals(showIncomplete) ? false : null)
+                .category(showCategory);
+        if (Boolean.TRUE.equals(sortByDate)) {
+            query.orderBy(TaskOrder.DUE_DATE);
+        } else if (Boolean.TRUE.equals(sortByPriority)) {
+            query.orderBy(TaskOrder.PRIORITY);
+        }
+        return query;
+    }
+
+    /**
+     * Runs a query on the task list. Recent results are served from the query cache; otherwise the most selective
+     * index available for the predicates is walked, or the whole list is scanned if no index narrows the search,
+     * and the matching tasks are then ordered and limited.
+     *
+     * @param query the predicates, ordering and limit of the view.
+     * @return a new list of the matching tasks.
+     */
+    public List<Task> query(TaskQuery query) {
+        List<Task> cached = cache.get(query);
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
+        List<Task> result = runQuery(query);
+        cache.put(query, new ArrayList<>(result), version);
+        return result;
+    }
+
+    /**
+     * Runs a query on the task list without the cache.
+     *
+     * @param query the predicates, ordering and limit of the view.
+     * @return a new list of the matching tasks.
+     */
+    private List<Task> runQuery(TaskQuery query) {
+        Comparator<Task> order = query.getOrder().getComparator();
+        Integer limit = query.getLimit();
+        int stopAt = (order == null && limit != null) ? limit : Integer.MAX_VALUE;
+        QueryPlan plan = index.plan(query);
+        boolean parallel = stopAt == Integer.MAX_VALUE && plan.getEstimatedRows() >= parallelThreshold;
+        List<Task> matched;
+        if (parallel) {
+            matched = parallelMatches(query, plan.getCandidates());
+        } else {
+            List<Task> found = new ArrayList<>();
+            forEachMatch(query, plan.getCandidates(), 0, task -> {
+                found.add(task);
+                return found.size() < stopAt;
+            });
+            matched = found;
+        }
+        if (order == null) {
+            return matched;
+        }
+        boolean packed = SortKeys.supports(query.getOrder(), matched.size());
+        if (limit != null && limit < matched.size()) {
+            return packed ? SortKeys.selectTop(matched, query.getOrder(), limit) : selectTop(matched, limit, order);
+        }
+        if (packed) {
+            return SortKeys.sort(matched, query.getOrder(), parallel);
+        }
+        if (parallel) {
+            Task[] sorted = matched.toArray(new Task[0]);
+            Arrays.parallelSort(sorted, order);
+            return new ArrayList<>(Arrays.asList(sorted));
+        }
+        matched.sort(order);
+        return matched;
+    }
+
+    /**
+     * Filters the candidates of a query plan on the common fork-join pool. The stream is ordered, so the result
+     * keeps list order exactly as the sequential walk does.
+     *
+     * @param query the query to match.
+     * @param candidates the candidate positions of the plan, null to scan the whole list.
+     * @return a new list of the matching tasks in list order.
+     */
+    private List<Task> parallelMatches(TaskQuery query, BitSet candidates) {
+        TaskVector snapshot = tasks;
+        IntStream positions = (candidates != null) ? candidates.stream().filter(i -> i < snapshot.size()) : IntStream.range(0, snapshot.size());
+        return positions.parallel()
+                .mapToObj(snapshot::get)
+                .filter(query::matches)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Sets the number of candidate tasks from which queries filter and sort in parallel. Parallel execution only
+     * pays off on large lists; below the threshold queries run on the calling thread.
+     *
+     * @param parallelThreshold the minimum number of candidates of a parallel query.
+     * @throws IllegalArgumentException if parallelThreshold is not positive.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be a positive value.");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Gets one page of a query in a stable order: the order of the query, ties broken by the order of the task list.
+     * Pages in list order, by due date or by priority walk the indexes from the cursor, so their cost grows with
+     * the page size rather than with the list; the other orders select the page with a bounded heap.
+     *
+     * @param query the predicates and ordering of the view, it must not have a limit.
+     * @param pageSize the maximum number of tasks in the page.
+     * @param after the cursor returned with the previous page, or null for the first page.
+     * @return the page of tasks and the cursor of the next page.
+     * @throws IllegalArgumentException if pageSize is not positive, the query has a limit or the cursor is invalid.
+     */
+    public TaskPage getPage(TaskQuery query, int pageSize, String after) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive value.");
+        }
+        if (query.getLimit() != null) {
+            throw new IllegalArgumentException("A paged query cannot have a limit.");
+        }
+        Task anchor = (after != null) ? decodeCursor(after) : null;
+        TaskOrder order = query.getOrder();
+        List<Task> page = new ArrayList<>();
+        if (order == TaskOrder.NONE) {
+            forEachMatch(query, (anchor != null) ? anchor.getPosition() + 1 : 0, task -> {
+                page.add(task);
+                return page.size() <= pageSize;
+            });
+        } else if (index.canWalk(order)) {
+            index.walk(order, anchor, position -> {
+                Task task = tasks.get(position);
+                if (query.matches(task)) {
+                    page.add(task);
+                }
+                return page.size() <= pageSize;
+            });
+        } else {
+            Comparator<Task> stableOrder = order.getComparator().thenComparingInt(Task::getPosition);
+            List<Task> matched = new ArrayList<>();
+            forEachMatch(query, 0, task -> {
+                if (anchor == null || stableOrder.compare(task, anchor) > 0) {
+                    matched.add(task);
+                }
+                return true;
+            });
+            if (matched.size() > pageSize + 1) {
+                page.addAll(selectTop(matched, pageSize + 1, stableOrder));
+            } else {
+                matched.sort(stableOrder);
+                page.addAll(matched);
+            }
+        }
+        if (page.size() <= pageSize) {
+            return new TaskPage(page, null);
+        }
+        List<Task> shown = new ArrayList<>(page.subList(0, pageSize));
+        return new TaskPage(shown, encodeCursor(shown.get(pageSize - 1)));
+    }
+
+    /**
+     * Visits the tasks matching a query in list order, walking the candidates of the query plan.
+     *
+     * @param query the query to match.
+     * @param from the first position to visit.
+     * @param visitor called with every matching task, returns false to stop the walk.
+     */
+    private void forEachMatch(TaskQuery query, int from, Predicate<Task> visitor) {
+        forEachMatch(query, index.plan(query).getCandidates(), from, visitor);
+    }
+
+    /**
+     * Visits the tasks matching a query in list order, walking the given candidates.
+     *
+     * @param query the query to match.
+     * @param candidates the candidate positions, null to scan the whole list.
+     * @param from the first position to visit.
+     * @param visitor called with every matching task, returns false to stop the walk.
+     */
+    private void forEachMatch(TaskQuery query, BitSet candidates, int from, Predicate<Task> visitor) {
+        TaskVector snapshot = tasks;
+        if (candidates == null) {
+            for (int i = from; i < snapshot.size(); i++) {
+                if (query.matches(snapshot.get(i)) && !visitor.test(snapshot.get(i))) {
+                    return;
+                }
             }
-            if (showCategory != null && !showCategory.isEmpty() && !showCategory.equals(task.getCategory())) {
-                isMatched = false;
+        } else {
+            for (int i = candidates.nextSetBit(from); i >= 0 && i < snapshot.size(); i = candidates.nextSetBit(i + 1)) {
+                if (query.matches(snapshot.get(i)) && !visitor.test(snapshot.get(i))) {
+                    return;
+                }
             }
-            if (isMatched) {
-                filteredTasks.add(task);
+        }
+    }
+
+    /**
+     * Encodes the continuation cursor pointing after a task.
+     *
+     * @param last the last task of a page.
+     * @return the opaque cursor.
+     */
+    private static String encodeCursor(Task last) {
+        String cursor = last.getPosition() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation cursor back to the last task of the previous page.
+     *
+     * @param cursor the opaque cursor.
+     * @return the task the cursor points after.
+     * @throws IllegalArgumentException if the cursor is malformed or no longer points at the same task.
+     */
+    private Task decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            int position = Integer.parseInt(parts[0]);
+            int id = Integer.parseInt(parts[1]);
+            TaskVector snapshot = tasks;
+            if (position >= 0 && position < snapshot.size() && snapshot.get(position).getId() == id) {
+                return snapshot.get(position);
             }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            // reported below
         }
-        if (sortByDate == true && sortByPriority ==true) {
-            throw new IllegalArgumentException("A Task cannot sort by both date and priority simultaneously.");
+        throw new IllegalArgumentException("Invalid or expired cursor: " + cursor);
+    }
+
+    /**
+     * Searches the task descriptions with the inverted text index. A task matches if its description contains every
+     * word of the search; a word ending with '*' matches every word starting with it.
+     *
+     * @param terms the words to search for.
+     * @return a new list of the matching tasks in list order.
+     * @throws IllegalArgumentException if terms contains no word.
+     */
+    public List<Task> search(String terms) {
+        if (terms == null) {
+            throw new IllegalArgumentException("Search must contain at least one word.");
         }
-        if (sortByDate != null && sortByDate) {
-            Collections.sort(filteredTasks, Comparator.comparing(Task::getDue, Comparator.nullsLast(Comparator.naturalOrder()))); 
-        } else if (sortByPriority != null && sortByPriority) {
-            Collections.sort(filteredTasks, Comparator.comparing(Task::getPriority));
+        return query(new TaskQuery().text(terms));
+    }
+
+    /**
+     * Describes how a query would be executed, which index is walked and how many tasks it visits.
+     *
+     * @param query the query to plan.
+     * @return a description of the plan.
+     */
+    public String explain(TaskQuery query) {
+        return index.plan(query).toString();
+    }
+
+    /**
+     * Gets the first limit tasks according to the given order without sorting the whole list.
+     * Ties keep the order of the task list, so the result equals the head of a full stable sort.
+     *
+     * @param limit the maximum number of tasks to return.
+     * @param order the ordering of the tasks, the smallest tasks are returned first.
+     * @return a new list of at most limit tasks in ascending order.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    public List<Task> getTopTasks(int limit, Comparator<? super Task> order) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be a positive value.");
+        }
+        TaskVector snapshot = tasks;
+        if (limit >= snapshot.size()) {
+            List<Task> sortedTasks = new ArrayList<>(snapshot);
+            sortedTasks.sort(order);
+            return sortedTasks;
+        }
+        return selectTop(snapshot, limit, order);
+    }
+
+    /**
+     * Gets the next due tasks, ordered by due date then priority as defined by Task.compareTo.
+     *
+     * @param limit the maximum number of tasks to return.
+     * @return a new list of at most limit tasks, the earliest due first.
+     */
+    public List<Task> getNextDueTasks(int limit) {
+        return getTopTasks(limit, TaskOrder.NEXT_DUE.getComparator());
+    }
+
+    /**
+     * Gets the tasks with the highest priority, tasks of the same priority are ordered by Task.compareTo.
+     *
+     * @param limit the maximum number of tasks to return.
+     * @return a new list of at most limit tasks, the highest priority first.
+     */
+    public List<Task> getHighestPriorityTasks(int limit) {
+        return getTopTasks(limit, TaskOrder.HIGHEST_PRIORITY.getComparator());
+    }
+
+    /**
+     * Selects the limit smallest tasks with a bounded max-heap, costing O(n log limit).
+     * The heap holds positions in the candidate list so equal tasks are resolved by their position.
+     *
+     * @param candidates the tasks to select from.
+     * @param limit the number of tasks to keep, smaller than the size of candidates.
+     * @param order the ordering of the tasks.
+     * @return a new list of the limit smallest tasks in ascending order.
+     */
+    private static List<Task> selectTop(List<Task> candidates, int limit, Comparator<? super Task> order) {
+        Comparator<Integer> byPosition = (a, b) -> {
+            int result = order.compare(candidates.get(a), candidates.get(b));
+            return (result != 0) ? result : Integer.compare(a, b);
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, byPosition.reversed());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (byPosition.compare(i, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(i);
+            }
         }
-        for (Task task : filteredTasks) {
-            System.out.println(task);
+        Task[] top = new Task[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = candidates.get(heap.poll());
         }
+        return new ArrayList<>(Arrays.asList(top));
+    }
+
+    /**
+     * Gets the live aggregate counters of the task list, reading them costs constant time.
+     *
+     * @return the counters, they keep following later changes.
+     */
+    public TaskStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Displays the aggregate counters: totals, completion, overdue, and counts per priority and per category.
+     */
+    public void displayStats() {
+        System.out.println(stats);
     }
 
     /**
      * Filters tasks by completion status 
      * @param completed the completion status
-     * @return 
+     * @return a new list of the tasks with the given completion status.
      */
     public List<Task> getTasksByCompletion(boolean completed) {
-        List<Task> filteredTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.isCompleted() == completed) {
-                filteredTasks.add(task);
-            }
-        }
-        return filteredTasks;
+        return query(new TaskQuery().completed(completed));
     }
 
     /**
-     * Gets the tasks by the category 
+     * Gets the tasks by the category, ignoring case
      * @param category the category type
-     * @return
+     * @return a new list of the tasks in the given category.
      */
     public List<Task> getTasksByCategory(String category) {
-        List<Task> filteredTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.getCategory() != null &&task.getCategory().equalsIgnoreCase(category)) {
-                filteredTasks.add(task);
-            }
+        if (category == null || category.isEmpty()) {
+            return new ArrayList<>();
         }
-        return filteredTasks;
+        return query(new TaskQuery().categoryIgnoreCase(category));
     }
 
     /**
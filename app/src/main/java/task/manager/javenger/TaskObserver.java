@@ -0,0 +1,26 @@
+package task.manager.javenger;
+
+/**
+ * Receives a notification every time a field of an observed Task changes.
+ */
+interface TaskObserver {
+
+    /**
+     * Called before a field of the task is changed to a different value, so the observer can refuse the change.
+     *
+     * @param task the task about to change, it still holds the old value.
+     * @param field the field about to change.
+     * @throws IllegalStateException if the task cannot be changed now.
+     */
+    default void taskChanging(Task task, TaskField field) {
+    }
+
+    /**
+     * Called after a field of the task has been changed to a different value.
+     *
+     * @param task the changed task, it already holds the new value.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void taskChanged(Task task, TaskField field, Object oldValue);
+}
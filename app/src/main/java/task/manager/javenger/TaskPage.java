@@ -0,0 +1,50 @@
+package task.manager.javenger;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TaskPage is one page of a paged query together with the cursor continuing after it.
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final String nextCursor;
+
+    /**
+     * Constructs a new TaskPage instance.
+     *
+     * @param tasks the tasks of the page.
+     * @param nextCursor the cursor of the next page, or null if this is the last page.
+     */
+    public TaskPage(List<Task> tasks, String nextCursor) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the tasks of the page.
+     *
+     * @return an unmodifiable list of the tasks.
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Gets the opaque cursor to pass to get the next page.
+     *
+     * @return the cursor, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether another page follows this one.
+     *
+     * @return true if there is a next page.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,161 @@
+package task.manager.javenger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TaskRenderer writes tasks in one of the output formats through a large buffer. Each line is built in a
+ * StringBuilder reused for every task and copied into the buffer without creating a String, and the underlying
+ * stream sees one write per buffer instead of one synchronized, flushing println per task.
+ *
+ * <p>Nothing reaches the stream before flush is called or the buffer fills up.
+ */
+final class TaskRenderer {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] HEADER = { "id", "text", "completed", "due", "priority", "category" };
+    private static final String[] TABLE_HEADER = { "ID", "Text", "Completed", "Due", "Priority", "Category" };
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final TaskFormat format;
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    /**
+     * Constructs a new TaskRenderer.
+     *
+     * @param out the stream to write to, in the charset of the stream if it is a PrintStream, UTF-8 otherwise.
+     * @param format the output format.
+     */
+    TaskRenderer(OutputStream out, TaskFormat format) {
+        Charset charset = (out instanceof PrintStream printStream) ? printStream.charset() : StandardCharsets.UTF_8;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, charset), BUFFER_SIZE);
+        this.format = format;
+    }
+
+    /**
+     * Writes a list of tasks, with the header of the format if it has one.
+     *
+     * @param tasks the tasks.
+     */
+    void render(List<Task> tasks) {
+        switch (format) {
+            case PLAIN -> {
+                for (Task task : tasks) {
+                    task.appendString(line);
+                    writeLine();
+                }
+            }
+            case CSV -> {
+                line.append(String.join(",", HEADER));
+                writeLine();
+                for (Task task : tasks) {
+                    task.appendCsvLine(line);
+                    writeLine();
+                }
+            }
+            case NDJSON -> {
+                for (Task task : tasks) {
+                    try {
+                        Json.writeTask(task, line);
+                    } catch (IOException e) {
+                        // a StringBuilder does not throw
+                        throw new UncheckedIOException(e);
+                    }
+                    writeLine();
+                }
+            }
+            case TABLE -> renderTable(tasks);
+        }
+    }
+
+    /**
+     * Writes the buffered output to the stream.
+     */
+    void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes tasks as a table whose columns are as wide as their widest cell.
+     *
+     * @param tasks the tasks.
+     */
+    private void renderTable(List<Task> tasks) {
+        int[] widths = new int[TABLE_HEADER.length];
+        for (int column = 0; column < widths.length; column++) {
+            widths[column] = TABLE_HEADER[column].length();
+        }
+        for (Task task : tasks) {
+            widths[0] = Math.max(widths[0], Integer.toString(task.getId()).length());
+            widths[1] = Math.max(widths[1], task.getText().length());
+            widths[2] = Math.max(widths[2], task.isCompleted() ? 4 : 5);
+            widths[3] = Math.max(widths[3], task.getDueEpochDay() != Task.NO_DUE_DATE ? 10 : 0);
+            widths[4] = Math.max(widths[4], task.getPriority().name().length());
+            widths[5] = Math.max(widths[5], task.getCategory() != null ? task.getCategory().length() : 0);
+        }
+        for (int column = 0; column < widths.length; column++) {
+            cell(TABLE_HEADER[column], widths, column);
+        }
+        writeLine();
+        for (Task task : tasks) {
+            cell(Integer.toString(task.getId()), widths, 0);
+            cell(task.getText(), widths, 1);
+            cell(task.isCompleted() ? "true" : "false", widths, 2);
+            cell(task.getDue() != null ? task.getDue().toString() : "", widths, 3);
+            cell(task.getPriority().name(), widths, 4);
+            cell(task.getCategory() != null ? task.getCategory() : "", widths, 5);
+            writeLine();
+        }
+    }
+
+    /**
+     * Appends a table cell padded to the width of its column. The last column is not padded.
+     *
+     * @param value the text of the cell.
+     * @param widths the widths of the columns.
+     * @param column the column of the cell.
+     */
+    private void cell(String value, int[] widths, int column) {
+        if (column > 0) {
+            line.append("  ");
+        }
+        line.append(value);
+        if (column < widths.length - 1) {
+            for (int i = value.length(); i < widths[column]; i++) {
+                line.append(' ');
+            }
+        }
+    }
+
+    /**
+     * Writes the line built so far followed by a line separator, and clears the builder for the next line.
+     */
+    private void writeLine() {
+        line.append(LINE_SEPARATOR);
+        int length = line.length();
+        if (chars.length < length) {
+            chars = Arrays.copyOf(chars, Math.max(length, chars.length * 2));
+        }
+        line.getChars(0, length, chars, 0);
+        line.setLength(0);
+        try {
+            out.write(chars, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
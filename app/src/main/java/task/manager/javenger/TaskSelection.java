@@ -0,0 +1,123 @@
+package task.manager.javenger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TaskSelection picks the tasks a bulk operation of a TaskManager applies to: tasks given by ID or by ranges of
+ * IDs, all tasks, or all tasks matching a query. IDs and a query combine, the selection is then the given tasks that
+ * match the query.
+ *
+ * <p>A task given by a single ID must exist, a range selects the existing tasks in it.
+ */
+public class TaskSelection {
+
+    /**
+     * A range of task IDs.
+     *
+     * @param from the first ID.
+     * @param to the last ID, equal to from for a single ID.
+     */
+    record Range(int from, int to) {
+        boolean isSingle() {
+            return from == to;
+        }
+    }
+
+    private final List<Range> ranges = new ArrayList<>();
+    private TaskQuery filter;
+
+    /**
+     * Adds a task to the selection.
+     *
+     * @param id the ID of the task.
+     * @return this selection.
+     */
+    public TaskSelection id(int id) {
+        ranges.add(new Range(id, id));
+        return this;
+    }
+
+    /**
+     * Adds the existing tasks with an ID in a range to the selection.
+     *
+     * @param from the first ID.
+     * @param to the last ID, inclusive.
+     * @return this selection.
+     * @throws IllegalArgumentException if the range is empty.
+     */
+    public TaskSelection range(int from, int to) {
+        if (to < from) {
+            throw new IllegalArgumentException("Invalid range of task IDs: " + from + "-" + to);
+        }
+        ranges.add(new Range(from, to));
+        return this;
+    }
+
+    /**
+     * Only selects the tasks matching a query. Its ordering and limit are used when the selection has no IDs.
+     *
+     * @param filter the query, null to select the tasks regardless.
+     * @return this selection.
+     */
+    public TaskSelection matching(TaskQuery filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Parses a selection from a comma-separated list of IDs and ranges of IDs, such as 1,4,10-20, or from "all" to
+     * select every task.
+     *
+     * @param ids the IDs.
+     * @return the selection.
+     * @throws IllegalArgumentException if an ID or a range is not valid.
+     */
+    public static TaskSelection parse(String ids) {
+        TaskSelection selection = new TaskSelection();
+        if (ids.equals("all")) {
+            return selection;
+        }
+        for (String part : ids.split(",", -1)) {
+            int dash = part.indexOf('-', 1);
+            try {
+                if (dash < 0) {
+                    selection.id(Integer.parseInt(part.trim()));
+                } else {
+                    selection.range(Integer.parseInt(part.substring(0, dash).trim()), Integer.parseInt(part.substring(dash + 1).trim()));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid task ID: " + part);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Checks whether the selection gives tasks by ID, otherwise it selects every task matching its query.
+     *
+     * @return true if IDs or ranges were added.
+     */
+    public boolean hasIds() {
+        return !ranges.isEmpty();
+    }
+
+    /**
+     * Gets the IDs and ranges of IDs, in the order they were added.
+     *
+     * @return a read-only list of the ranges.
+     */
+    List<Range> getRanges() {
+        return Collections.unmodifiableList(ranges);
+    }
+
+    /**
+     * Gets the query the selected tasks must match.
+     *
+     * @return the query, or null if there is none.
+     */
+    public TaskQuery getFilter() {
+        return filter;
+    }
+}
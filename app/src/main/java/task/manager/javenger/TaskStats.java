@@ -0,0 +1,292 @@
+package task.manager.javenger;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TaskStats holds aggregate counters over the tasks of a TaskManager. The counters are updated on every add,
+ * completion and field change, so reading them never walks the task list.
+ */
+public class TaskStats {
+    private final Clock clock;
+    private int total;
+    private int completed;
+    private final int[] byPriority = new int[Priority.values().length];
+    // counts by code in the shared category dictionary
+    private int[] byCategory = new int[16];
+    private int uncategorized;
+    // counts by due date as an epoch day
+    private final TreeMap<Integer, Integer> incompleteByDue = new TreeMap<>();
+    private int overdue;
+    private int overdueAsOf;
+
+    /**
+     * Constructs new empty TaskStats using the system clock to decide which tasks are overdue.
+     */
+    TaskStats() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs new empty TaskStats.
+     *
+     * @param clock the clock giving the current date.
+     */
+    TaskStats(Clock clock) {
+        this.clock = clock;
+        this.overdueAsOf = today();
+    }
+
+    /**
+     * Constructs a copy of other TaskStats, which no longer follows later changes.
+     *
+     * @param other the counters to copy.
+     */
+    TaskStats(TaskStats other) {
+        synchronized (other) {
+            this.clock = other.clock;
+            this.total = other.total;
+            this.completed = other.completed;
+            System.arraycopy(other.byPriority, 0, this.byPriority, 0, byPriority.length);
+            this.byCategory = other.byCategory.clone();
+            this.uncategorized = other.uncategorized;
+            this.incompleteByDue.putAll(other.incompleteByDue);
+            this.overdue = other.overdue;
+            this.overdueAsOf = other.overdueAsOf;
+        }
+    }
+
+    /**
+     * Gets the number of tasks.
+     *
+     * @return the number of tasks.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of completed tasks.
+     *
+     * @return the number of completed tasks.
+     */
+    public int getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Gets the number of incomplete tasks.
+     *
+     * @return the number of incomplete tasks.
+     */
+    public int getIncomplete() {
+        return total - completed;
+    }
+
+    /**
+     * Gets the number of tasks with a priority.
+     *
+     * @param priority the priority level.
+     * @return the number of tasks with the priority.
+     */
+    public int getCount(Priority priority) {
+        return byPriority[priority.ordinal()];
+    }
+
+    /**
+     * Gets the number of tasks in a category.
+     *
+     * @param category the category name, null for the uncategorized tasks.
+     * @return the number of tasks in the category.
+     */
+    public int getCount(String category) {
+        if (category == null) {
+            return uncategorized;
+        }
+        int code = CategoryDictionary.SHARED.find(category);
+        return (code >= 0 && code < byCategory.length) ? byCategory[code] : 0;
+    }
+
+    /**
+     * Gets the number of tasks in every category. Uncategorized tasks and categories without tasks are not included.
+     *
+     * @return an unmodifiable map from category name to number of tasks, categories in the order they were first seen.
+     */
+    public Map<String, Integer> getCategoryCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int code = 0; code < byCategory.length; code++) {
+            if (byCategory[code] != 0) {
+                counts.put(CategoryDictionary.SHARED.name(code), byCategory[code]);
+            }
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Gets the number of incomplete tasks due before today. When the date changes, the counter catches up with the
+     * days that passed since the last read, so reads stay constant time on average. Catching up writes the
+     * counter, so the method is synchronized for concurrent readers.
+     *
+     * @return the number of overdue tasks.
+     */
+    public synchronized int getOverdue() {
+        int today = today();
+        if (today > overdueAsOf) {
+            for (int count : incompleteByDue.subMap(overdueAsOf, true, today, false).values()) {
+                overdue += count;
+            }
+        } else if (today < overdueAsOf) {
+            overdue = 0;
+            for (int count : incompleteByDue.headMap(today, false).values()) {
+                overdue += count;
+            }
+        }
+        overdueAsOf = today;
+        return overdue;
+    }
+
+    /**
+     * Replaces every counter with the counters of other TaskStats, keeping this clock.
+     *
+     * @param other the counters to take over.
+     */
+    synchronized void replaceWith(TaskStats other) {
+        total = other.total;
+        completed = other.completed;
+        System.arraycopy(other.byPriority, 0, byPriority, 0, byPriority.length);
+        byCategory = other.byCategory.clone();
+        uncategorized = other.uncategorized;
+        incompleteByDue.clear();
+        incompleteByDue.putAll(other.incompleteByDue);
+        overdue = other.overdue;
+        overdueAsOf = other.overdueAsOf;
+    }
+
+    /**
+     * Resets every counter to zero.
+     */
+    void clear() {
+        total = 0;
+        completed = 0;
+        Arrays.fill(byPriority, 0);
+        Arrays.fill(byCategory, 0);
+        uncategorized = 0;
+        incompleteByDue.clear();
+        overdue = 0;
+    }
+
+    /**
+     * Counts a new task.
+     *
+     * @param task the added task.
+     */
+    void add(Task task) {
+        total++;
+        if (task.isCompleted()) {
+            completed++;
+        } else {
+            countDue(task.getDueEpochDay(), 1);
+        }
+        byPriority[task.getPriority().ordinal()]++;
+        countCategory(task.getCategoryCode(), 1);
+    }
+
+    /**
+     * Moves a changed task from the counters of its old value to the counters of its new value.
+     *
+     * @param task the changed task.
+     * @param field the changed field.
+     * @param oldValue the value of the field before the change.
+     */
+    void update(Task task, TaskField field, Object oldValue) {
+        switch (field) {
+            case COMPLETED:
+                completed += task.isCompleted() ? 1 : -1;
+                countDue(task.getDueEpochDay(), task.isCompleted() ? -1 : 1);
+                break;
+            case DUE:
+                if (!task.isCompleted()) {
+                    countDue((oldValue != null) ? Task.toEpochDay((LocalDate) oldValue) : Task.NO_DUE_DATE, -1);
+                    countDue(task.getDueEpochDay(), 1);
+                }
+                break;
+            case PRIORITY:
+                byPriority[((Priority) oldValue).ordinal()]--;
+                byPriority[task.getPriority().ordinal()]++;
+                break;
+            case CATEGORY:
+                countCategory(CategoryDictionary.SHARED.find((String) oldValue), -1);
+                countCategory(task.getCategoryCode(), 1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Adjusts the counters of incomplete tasks by due date.
+     *
+     * @param due the due date of an incomplete task as an epoch day, NO_DUE_DATE if it has none.
+     * @param delta the adjustment.
+     */
+    private void countDue(int due, int delta) {
+        if (due == Task.NO_DUE_DATE) {
+            return;
+        }
+        incompleteByDue.merge(due, delta, (a, b) -> (a + b != 0) ? a + b : null);
+        if (due < overdueAsOf) {
+            overdue += delta;
+        }
+    }
+
+    /**
+     * Gets the current date of the clock.
+     *
+     * @return the current date as an epoch day.
+     */
+    private int today() {
+        return (int) LocalDate.now(clock).toEpochDay();
+    }
+
+    /**
+     * Adjusts the counter of a category.
+     *
+     * @param code the code of the category, NO_CATEGORY for the uncategorized tasks.
+     * @param delta the adjustment.
+     */
+    private void countCategory(int code, int delta) {
+        if (code == CategoryDictionary.NO_CATEGORY) {
+            uncategorized += delta;
+            return;
+        }
+        if (code >= byCategory.length) {
+            byCategory = Arrays.copyOf(byCategory, Math.max(code + 1, byCategory.length * 2));
+        }
+        byCategory[code] += delta;
+    }
+
+    /**
+     * Overrides the toString method to print the counters.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Total: ").append(total).append(System.lineSeparator());
+        sb.append("Completed: ").append(completed).append(System.lineSeparator());
+        sb.append("Incomplete: ").append(getIncomplete()).append(System.lineSeparator());
+        sb.append("Overdue: ").append(getOverdue()).append(System.lineSeparator());
+        for (Priority priority : Priority.values()) {
+            sb.append("Priority ").append(priority).append(": ").append(getCount(priority)).append(System.lineSeparator());
+        }
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(getCategoryCounts()).entrySet()) {
+            sb.append("Category ").append(entry.getKey()).append(": ").append(entry.getValue()).append(System.lineSeparator());
+        }
+        sb.append("Uncategorized: ").append(uncategorized);
+        return sb.toString();
+    }
+}
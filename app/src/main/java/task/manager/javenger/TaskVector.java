@@ -0,0 +1,113 @@
+package task.manager.javenger;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * TaskVector is an immutable snapshot of an append-only task list. Tasks live in fixed-size chunks hung off a
+ * spine array, and appending returns a new snapshot that shares every chunk with the previous one. Slots past the
+ * size of a snapshot are never read through it, so the latest snapshot can fill them in place: an append costs
+ * O(1) amortized and never copies tasks, only the spine when it is full.
+ *
+ * <p>Snapshots can be read from any thread once published through a volatile field or another safe handoff. Only
+ * one thread may append at a time; appending to a snapshot that is no longer the latest copies it first, so older
+ * snapshots never change. The list is read-only, its mutators throw UnsupportedOperationException.
+ */
+final class TaskVector extends AbstractList<Task> implements RandomAccess {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /** The state shared by all snapshots of one lineage: the number of tasks appended so far. */
+    private static final class Lineage {
+        private int length;
+    }
+
+    private final Lineage lineage;
+    private final Task[][] spine;
+    private final int size;
+
+    /**
+     * Constructs a new empty TaskVector.
+     */
+    TaskVector() {
+        this(new Lineage(), new Task[4][], 0);
+    }
+
+    private TaskVector(Lineage lineage, Task[][] spine, int size) {
+        this.lineage = lineage;
+        this.spine = spine;
+        this.size = size;
+    }
+
+    /**
+     * Returns a snapshot with a task appended.
+     *
+     * @param task the task to append.
+     * @return a new snapshot, this snapshot is left unchanged.
+     */
+    TaskVector append(Task task) {
+        if (size != lineage.length) {
+            return copy().append(task);
+        }
+        Task[][] nextSpine = spine;
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == nextSpine.length) {
+            nextSpine = Arrays.copyOf(nextSpine, nextSpine.length * 2);
+        }
+        if (nextSpine[chunk] == null) {
+            nextSpine[chunk] = new Task[CHUNK_SIZE];
+        }
+        nextSpine[chunk][size & CHUNK_MASK] = task;
+        lineage.length = size + 1;
+        return new TaskVector(lineage, nextSpine, size + 1);
+    }
+
+    /**
+     * Returns a snapshot of the first tasks of this one. It shares the chunks of this snapshot, and appending to it
+     * copies it first, so this snapshot is left unchanged.
+     *
+     * @param newSize the number of tasks to keep.
+     * @return a new snapshot.
+     */
+    TaskVector truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Size " + newSize + " out of bounds for length " + size);
+        }
+        return new TaskVector(lineage, spine, newSize);
+    }
+
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return spine[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies this snapshot into a new lineage that can be appended to. Full chunks are shared, since neither lineage
+     * writes below its own size, only the partly filled chunk is copied.
+     *
+     * @return a new snapshot with the same tasks.
+     */
+    private TaskVector copy() {
+        int chunks = (size + CHUNK_MASK) >>> CHUNK_BITS;
+        Task[][] copied = new Task[Math.max(4, spine.length)][];
+        System.arraycopy(spine, 0, copied, 0, chunks);
+        if ((size & CHUNK_MASK) != 0) {
+            Task[] partial = new Task[CHUNK_SIZE];
+            System.arraycopy(spine[chunks - 1], 0, partial, 0, size & CHUNK_MASK);
+            copied[chunks - 1] = partial;
+        }
+        Lineage copiedLineage = new Lineage();
+        copiedLineage.length = size;
+        return new TaskVector(copiedLineage, copied, size);
+    }
+}
@@ -0,0 +1,182 @@
+package task.manager.javenger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * TextArena stores strings as UTF-8 in a direct ByteBuffer outside the Java heap, so that large numbers of task texts
+ * neither fill the old generation nor have to be traced by full collections. A stored string is identified by a
+ * handle, a slot in a table of offsets and lengths, so handles stay valid when the arena is compacted.
+ *
+ * <p>Freed texts leave dead bytes behind. When the arena runs out of room it compacts into a new buffer instead of
+ * growing if at least half of the used bytes are dead, and {@link #compact()} can be called after large removals.
+ * Reads may run concurrently, get only uses absolute reads of the buffer, but a put, free or compaction must not
+ * run concurrently with anything else. A TaskManager only writes the arena of the tasks it holds, and
+ * ConcurrentTaskManager does so under its write lock while texts are read under its read lock.
+ */
+final class TextArena {
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private ByteBuffer buffer;
+    private int used;
+    private long dead;
+    private int[] offsets = new int[1024];
+    private int[] lengths = new int[1024];
+    private int slots;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    /**
+     * Constructs a new empty TextArena.
+     */
+    TextArena() {
+        buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Stores a string.
+     *
+     * @param text the string to store.
+     * @return the handle of the stored string.
+     * @throws IllegalStateException if the arena cannot hold the string.
+     */
+    int put(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (used + (long) bytes.length > buffer.capacity()) {
+            makeRoom(bytes.length);
+        }
+        int handle = allocateSlot();
+        buffer.put(used, bytes);
+        offsets[handle] = used;
+        lengths[handle] = bytes.length;
+        used += bytes.length;
+        return handle;
+    }
+
+    /**
+     * Decodes a stored string.
+     *
+     * @param handle the handle returned by put.
+     * @return a new String equal to the stored one.
+     */
+    String get(int handle) {
+        byte[] bytes = new byte[lengths[handle]];
+        buffer.get(offsets[handle], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Frees a stored string, its handle may be reused by a later put.
+     *
+     * @param handle the handle returned by put.
+     */
+    void free(int handle) {
+        dead += lengths[handle];
+        lengths[handle] = -1;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = handle;
+    }
+
+    /**
+     * Frees every stored string and shrinks the arena back to its initial capacity.
+     */
+    void clear() {
+        buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        used = 0;
+        dead = 0;
+        slots = 0;
+        freeCount = 0;
+    }
+
+    /**
+     * Moves the live strings into a new buffer sized for them, releasing the bytes of freed strings.
+     */
+    void compact() {
+        relocate(Math.max(INITIAL_CAPACITY, (int) Math.min(MAX_CAPACITY, (used - dead) * 2)));
+    }
+
+    /**
+     * Gets the number of bytes held by live strings.
+     *
+     * @return the live bytes.
+     */
+    long getLiveBytes() {
+        return used - dead;
+    }
+
+    /**
+     * Gets the number of bytes held by freed strings that compaction would release.
+     *
+     * @return the dead bytes.
+     */
+    long getDeadBytes() {
+        return dead;
+    }
+
+    /**
+     * Gets the size of the off-heap buffer.
+     *
+     * @return the capacity in bytes.
+     */
+    int getCapacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Compacts or grows the buffer so that a string of the given length fits.
+     *
+     * @param length the length in bytes of the string to store.
+     * @throws IllegalStateException if the live strings and the new one exceed the maximum capacity.
+     */
+    private void makeRoom(int length) {
+        long needed = used - dead + length;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException("Text arena is full.");
+        }
+        if (dead * 2 >= used && needed * 2 <= buffer.capacity()) {
+            relocate(buffer.capacity());
+        } else {
+            relocate((int) Math.min(MAX_CAPACITY, Math.max(needed * 2, (long) buffer.capacity() * 2)));
+        }
+    }
+
+    /**
+     * Copies the live strings, one after the other, into a new buffer and updates their offsets.
+     *
+     * @param capacity the capacity of the new buffer.
+     */
+    private void relocate(int capacity) {
+        ByteBuffer relocated = ByteBuffer.allocateDirect(capacity);
+        int position = 0;
+        for (int handle = 0; handle < slots; handle++) {
+            if (lengths[handle] >= 0) {
+                relocated.put(position, buffer, offsets[handle], lengths[handle]);
+                offsets[handle] = position;
+                position += lengths[handle];
+            }
+        }
+        buffer = relocated;
+        used = position;
+        dead = 0;
+    }
+
+    /**
+     * Takes a free slot, or a new one if none is free.
+     *
+     * @return the slot.
+     */
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slots == offsets.length) {
+            offsets = Arrays.copyOf(offsets, slots * 2);
+            lengths = Arrays.copyOf(lengths, slots * 2);
+        }
+        return slots++;
+    }
+}
@@ -0,0 +1,257 @@
+package task.manager.javenger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * TextIndex is an inverted index from the words of the task descriptions to the positions of the tasks using them.
+ * Words are sequences of letters and digits compared ignoring case. A search term ending with '*' matches every
+ * word starting with it, and a task must contain every term of a search to match it.
+ */
+class TextIndex {
+    private static final String PREFIX_WILDCARD = "*";
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Adds the words of a task description to the index.
+     *
+     * @param position the position of the task.
+     * @param text the description of the task.
+     */
+    void add(int position, String text) {
+        for (String word : tokenize(text)) {
+            postings.computeIfAbsent(word, k -> new Postings()).add(position);
+        }
+    }
+
+    /**
+     * Moves a task from the words of its old description to the words of its new one.
+     *
+     * @param position the position of the task.
+     * @param oldText the description before the change.
+     * @param newText the description after the change.
+     */
+    void update(int position, String oldText, String newText) {
+        Set<String> oldWords = tokenize(oldText);
+        Set<String> newWords = tokenize(newText);
+        for (String word : oldWords) {
+            if (!newWords.contains(word)) {
+                Postings positions = postings.get(word);
+                if (positions != null && positions.remove(position) && positions.size == 0) {
+                    postings.remove(word);
+                }
+            }
+        }
+        for (String word : newWords) {
+            if (!oldWords.contains(word)) {
+                postings.computeIfAbsent(word, k -> new Postings()).add(position);
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of tasks a search can match, the size of the rarest exact term.
+     *
+     * @param terms the search terms.
+     * @return an upper bound of the number of matching tasks, or Integer.MAX_VALUE if only prefixes are searched.
+     */
+    int estimate(String terms) {
+        int estimate = Integer.MAX_VALUE;
+        for (String term : parse(terms)) {
+            if (!term.endsWith(PREFIX_WILDCARD)) {
+                Postings positions = postings.get(term);
+                estimate = Math.min(estimate, (positions != null) ? positions.size : 0);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Finds the positions of the tasks containing every term. The term with the fewest positions is walked and
+     * each of its positions is looked up in the other terms.
+     *
+     * @param terms the search terms.
+     * @return the positions of the matching tasks.
+     */
+    BitSet search(String terms) {
+        List<int[]> matches = new ArrayList<>();
+        for (String term : parse(terms)) {
+            matches.add(term.endsWith(PREFIX_WILDCARD) ? prefixPositions(term.substring(0, term.length() - 1)) : exactPositions(term));
+        }
+        matches.sort(Comparator.comparingInt(positions -> positions.length));
+        BitSet result = new BitSet();
+        for (int position : matches.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < matches.size() && inAll; i++) {
+                inAll = Arrays.binarySearch(matches.get(i), position) >= 0;
+            }
+            if (inAll) {
+                result.set(position);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a description contains every term, without using the index.
+     *
+     * @param terms the search terms.
+     * @param text the description of a task.
+     * @return true if every term matches a word of the description.
+     */
+    static boolean matches(String terms, String text) {
+        Set<String> words = tokenize(text);
+        for (String term : parse(terms)) {
+            boolean found;
+            if (term.endsWith(PREFIX_WILDCARD)) {
+                String prefix = term.substring(0, term.length() - 1);
+                found = words.stream().anyMatch(word -> word.startsWith(prefix));
+            } else {
+                found = words.contains(term);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a search into its lowercase terms; a term keeps its trailing '*' if it is a prefix.
+     *
+     * @param terms the search as typed by the user.
+     * @return the terms.
+     * @throws IllegalArgumentException if the search contains no word.
+     */
+    static List<String> parse(String terms) {
+        List<String> parsed = new ArrayList<>();
+        if (terms != null) {
+            for (String part : terms.trim().split("\\s+")) {
+                boolean prefix = part.endsWith(PREFIX_WILDCARD);
+                List<String> words = new ArrayList<>(tokenize(part));
+                for (int i = 0; i < words.size(); i++) {
+                    parsed.add((prefix && i == words.size() - 1) ? words.get(i) + PREFIX_WILDCARD : words.get(i));
+                }
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Search must contain at least one word.");
+        }
+        return parsed;
+    }
+
+    /**
+     * Splits a text into its distinct lowercase words.
+     *
+     * @param text the text to split.
+     * @return the words in order of first appearance.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Gets the sorted positions of the tasks using a word.
+     *
+     * @param word the word.
+     * @return the positions, empty if no task uses the word.
+     */
+    private int[] exactPositions(String word) {
+        Postings positions = postings.get(word);
+        return (positions != null) ? Arrays.copyOf(positions.positions, positions.size) : new int[0];
+    }
+
+    /**
+     * Gets the sorted positions of the tasks using a word starting with the prefix.
+     *
+     * @param prefix the start of the word.
+     * @return the positions, empty if no task uses such a word.
+     */
+    private int[] prefixPositions(String prefix) {
+        SortedMap<String, Postings> words = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (words.size() == 1) {
+            return exactPositions(words.firstKey());
+        }
+        BitSet union = new BitSet();
+        for (Map.Entry<String, Postings> entry : words.entrySet()) {
+            Postings positions = entry.getValue();
+            for (int i = 0; i < positions.size; i++) {
+                union.set(positions.positions[i]);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    /**
+     * Postings is the sorted list of the positions of the tasks using one word.
+     */
+    private static class Postings {
+        private int[] positions = new int[2];
+        private int size;
+
+        /**
+         * Adds a position, appending in constant time when positions arrive in ascending order.
+         *
+         * @param position the position to add.
+         */
+        void add(int position) {
+            int index = (size == 0 || positions[size - 1] < position) ? size : Arrays.binarySearch(positions, 0, size, position);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            if (index < 0) {
+                index = -index - 1;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            System.arraycopy(positions, index, positions, index + 1, size - index);
+            positions[index] = position;
+            size++;
+        }
+
+        /**
+         * Removes a position.
+         *
+         * @param position the position to remove.
+         * @return true if the position was present.
+         */
+        boolean remove(int position) {
+            int index = Arrays.binarySearch(positions, 0, size, position);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
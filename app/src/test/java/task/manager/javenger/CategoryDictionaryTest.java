@@ -0,0 +1,26 @@
+package task.manager.javenger;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryDictionaryTest {
+
+    @Test
+    public void testCodesAndCanonicalInstances() {
+        CategoryDictionary categories = new CategoryDictionary();
+        String work = new String("Work");
+        assertEquals(0, categories.code(work));
+        assertEquals(1, categories.code("Home"));
+        assertEquals(0, categories.code(new String("Work")));
+        assertSame(work, categories.intern(new String("Work")));
+        assertEquals(2, categories.code("work"));
+
+        assertEquals(CategoryDictionary.NO_CATEGORY, categories.code(null));
+        assertEquals(CategoryDictionary.NO_CATEGORY, categories.find("Garden"));
+        assertNull(categories.name(CategoryDictionary.NO_CATEGORY));
+        assertEquals(List.of("Work", "Home", "work"), categories.names());
+        assertEquals(3, categories.size());
+    }
+}
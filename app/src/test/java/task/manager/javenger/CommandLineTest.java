@@ -7,11 +7,17 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,9 +29,6 @@ import java.util.Map;
  */
 public class CommandLineTest {
 
-    String[] commandLine1;
-    String[] commandLine2;
-
     //Completed by Jingjing Ji
     @Test
     public void testremoveFirstEmptyString() {
@@ -178,24 +181,134 @@ public class CommandLineTest {
         assertEquals("Exception: Command '--csv-file <path/to/file>' not found.", exception.getMessage());
     }
 
-    //Completed by Menglin Lin
-    @BeforeEach
-    void SetUp() {
-        commandLine1 = new String[] { "add-Task", "completed" };
-        commandLine2 = new String[] { "completed", "completed" };
+    private static String runSession(String... lines) {
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            System.setIn(new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+            CommandLine.main(new String[0]);
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testReadOnlySessionLeavesFileUntouched() throws IOException {
+        Path path = Files.createTempFile("session", ".csv");
+        List<String> content = List.of("id,text,completed,due,priority,category", "1,first task,false,,low,Work");
+        Files.write(path, content);
+
+        String output = runSession("--csv-file " + path + " --display", "--search first", "--stats", "--exist");
+
+        assertTrue(output.contains("text='first task'"));
+        assertEquals(content, Files.readAllLines(path));
+        Files.deleteIfExists(path);
     }
 
     @Test
-    void findAddTask() {
-        assertTrue(CommandLine.findAddTask(0, 1, commandLine1));
-        assertFalse(CommandLine.findAddTask(0, 1, commandLine2));
+    void testSessionHelpNeedsNoCsvFile() {
+        String output = runSession("--help display", "--exist");
+
+        assertTrue(output.contains("Display Tasks. If none of the following optional arguments are provided"));
     }
 
     @Test
-    void findDuplicateTask() {
-        assertTrue(CommandLine.findDuplicateTask(-1, 1, commandLine2, "completed"));
-        assertFalse(CommandLine.findDuplicateTask(-1, 1, commandLine1, "completed"));
+    void testSessionWritesChanges() throws IOException {
+        Path path = Files.createTempFile("session", ".csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category", "1,first task,false,,LOW,Work"));
+
+        runSession("--csv-file " + path + " --add-Task --priority 3 --Task-text second task",
+                "--complete-Task 1 --complete-Task x",
+                "--complete-Task 2",
+                "--exist");
+
+        assertEquals(List.of("id,text,completed,due,priority,category",
+                "1,first task,false,,LOW,Work",
+                "2,second task,true,,HIGH,"), Files.readAllLines(path));
+        Files.deleteIfExists(path);
     }
 
+    @Test
+    void testSessionUpdatesManyTasks() throws IOException {
+        Path path = Files.createTempFile("session", ".csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category",
+                "1,first task,false,2024/01/03,LOW,Sprint",
+                "2,second task,false,,LOW,Home",
+                "3,third task,false,,LOW,Sprint"));
+
+        String output = runSession("--csv-file " + path + " --update-Tasks all --if-category Sprint --set-priority 3 --shift-due -1",
+                "--complete-Task 1-2,3",
+                "--update-Tasks 1 --set-category Done --complete-Task 9",
+                "--update-Tasks 1-3",
+                "--exist");
+
+        assertTrue(output.contains("2 task(s) updated."));
+        assertEquals(List.of("id,text,completed,due,priority,category",
+                "1,first task,true,2024/29/02,HIGH,Sprint",
+                "2,second task,true,,LOW,Home",
+                "3,third task,true,,HIGH,Sprint"), Files.readAllLines(path));
+        Files.deleteIfExists(path);
+    }
 
-}
\ No newline at end of file
+    @Test
+    void testBatchScript() throws IOException {
+        Path path = Files.createTempFile("batch", ".csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category", "1,first task,false,,LOW,Work"));
+        Path script = Files.createTempFile("batch", ".txt");
+        Files.write(script, List.of(
+                "# nightly import",
+                "--add-Task --Task-text second task --priority 2",
+                "--add-Task --priority 5 --Task-text broken",
+                "",
+                "--complete-Task 1 --complete-Task 9",
+                "--add-Task --Task-text third task --category Home"));
+
+        int errors = CommandLine.runBatch(new String[] {"--csv-file", path.toString(), "--batch", script.toString()});
+
+        assertEquals(2, errors);
+        assertEquals(List.of("id,text,completed,due,priority,category",
+                "1,first task,true,,LOW,Work",
+                "2,second task,false,,MEDIUM,",
+                "3,third task,false,,LOW,Home"), Files.readAllLines(path));
+        assertThrows(IllegalArgumentException.class, () -> CommandLine.runBatch(new String[] {"--batch", script.toString()}));
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(script);
+    }
+
+    @Test
+    void testBatchScriptWithOffHeapText() throws IOException {
+        Path path = Files.createTempFile("batch", ".csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category", "1,café crème,false,,LOW,Work"));
+        Path script = Files.createTempFile("batch", ".txt");
+        Files.write(script, List.of("--add-Task --Task-text second task", "--complete-Task 1"));
+
+        int errors = CommandLine.runBatch(new String[] {"--csv-file", path.toString(), "--off-heap-text", "--batch", script.toString()});
+
+        assertEquals(0, errors);
+        assertEquals(List.of("id,text,completed,due,priority,category",
+                "1,café crème,true,,LOW,Work",
+                "2,second task,false,,LOW,"), Files.readAllLines(path));
+        assertThrows(IllegalArgumentException.class,
+                () -> CommandLine.runHttpServer(new String[] {"--csv-file", path.toString(), "--http", "--off-heap-text"}));
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(script);
+    }
+
+    @Test
+    void testBatchScriptCountsFailedWrite() throws IOException {
+        Path directory = Files.createTempDirectory("batch");
+        Path script = Files.createTempFile("batch", ".txt");
+        Files.write(script, List.of("--add-Task --Task-text first task"));
+
+        // a directory cannot be written as the CSV file
+        int errors = CommandLine.runBatch(new String[] {"--csv-file", directory.toString(), "--batch", script.toString()});
+
+        assertEquals(1, errors);
+        Files.deleteIfExists(directory);
+        Files.deleteIfExists(script);
+    }
+}
@@ -0,0 +1,75 @@
+package task.manager.javenger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tests for CommandParser class.
+ */
+public class CommandParserTest {
+
+    @Test
+    void testTokenize() {
+        List<CommandParser.Option> options = CommandParser.tokenize("--csv-file a.csv --add-Task --Task-text  buy milk  --completed");
+
+        assertEquals(List.of(new CommandParser.Option("csv-file", "a.csv"),
+                new CommandParser.Option("add-Task", null),
+                new CommandParser.Option("Task-text", "buy milk"),
+                new CommandParser.Option("completed", null)), options);
+    }
+
+    @Test
+    void testParseManyAddTaskGroups() {
+        StringBuilder line = new StringBuilder("--csv-file a.csv");
+        for (int i = 0; i < 1000; i++) {
+            line.append(" --add-Task --Task-text task ").append(i).append(" --priority 2 --due 2024-03-0").append(i % 9 + 1);
+        }
+        line.append(" --display --show-incomplete --limit 5");
+
+        List<Command> commands = CommandParser.parse(line.toString());
+
+        assertEquals(1001, commands.size());
+        Command.AddTask last = assertInstanceOf(Command.AddTask.class, commands.get(999));
+        assertEquals("task 999", last.text);
+        assertEquals(Priority.MEDIUM, last.priority);
+        assertEquals(LocalDate.of(2024, 3, 1), last.due);
+        assertNull(last.category);
+        Command.Display display = assertInstanceOf(Command.Display.class, commands.get(1000));
+        assertTrue(display.showIncomplete);
+        assertEquals(5, display.limit);
+    }
+
+    @Test
+    void testParseErrors() {
+        assertEquals("Missing --add-Task before --due",
+                assertThrows(IllegalArgumentException.class, () -> CommandParser.parse("--due 2024-01-01")).getMessage());
+        assertEquals("Duplicate --category command",
+                assertThrows(IllegalArgumentException.class,
+                        () -> CommandParser.parse("--add-Task --Task-text a --category x --category y")).getMessage());
+        assertEquals("Missing Task description for --add-Task option",
+                assertThrows(IllegalArgumentException.class,
+                        () -> CommandParser.parse("--add-Task --add-Task --Task-text a")).getMessage());
+        assertEquals("Invalid priority level for --priority option",
+                assertThrows(IllegalArgumentException.class,
+                        () -> CommandParser.parse("--add-Task --Task-text a --priority 4")).getMessage());
+        assertEquals("Exception: command not valid",
+                assertThrows(IllegalArgumentException.class, () -> CommandParser.parse("--stats --limit 3")).getMessage());
+    }
+
+    @Test
+    void testParseHelp() {
+        Command.Help all = assertInstanceOf(Command.Help.class, CommandParser.parse("--help").get(0));
+        assertNull(all.command());
+        assertEquals(new Command.Help("display"), CommandParser.parse("--help display").get(0));
+        assertEquals("Exception: --help Command must be the first command and only on its own.",
+                assertThrows(IllegalArgumentException.class, () -> CommandParser.parse("--display --help")).getMessage());
+    }
+}
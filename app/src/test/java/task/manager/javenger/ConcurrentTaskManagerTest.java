@@ -0,0 +1,118 @@
+package task.manager.javenger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static task.manager.javenger.TaskCsvFiles.createTempCsv;
+
+class ConcurrentTaskManagerTest {
+
+    @Test
+    public void testReadersAndWritersRunConcurrently() throws Exception {
+        Path path = createTempCsv("1,first,false,2024/01/03,LOW,Work");
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(path.toString());
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 300; i++) {
+                        List<Task> work = manager.query(new TaskQuery().category("Work").orderBy(TaskOrder.NEXT_DUE));
+                        assertFalse(work.isEmpty());
+                        assertNotNull(manager.findTaskById(1));
+                        manager.getNextDueTasks(3);
+                        manager.search("task");
+                        assertTrue(manager.getStats().getTotal() >= 1);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+        for (int w = 0; w < 2; w++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        manager.addTask("task " + i, false, LocalDate.of(2024, 1, 1).plusDays(i % 30), Priority.HIGH, i % 2 == 0 ? "Work" : "Home");
+                        LocalDate due = LocalDate.of(2024, 2, 1).plusDays(i);
+                        manager.updateTask(1, task -> task.setDue(due));
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertEquals(201, manager.getTasks().size());
+        assertEquals(201, manager.getStats().getTotal());
+        assertEquals(101, manager.query(new TaskQuery().category("Work")).size());
+        assertEquals(200, manager.query(new TaskQuery().priority(Priority.HIGH)).size());
+        assertEquals(201, new TaskManager(path.toString()).getTasks().size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testNestedCallsAndTaskSetters() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/01/03,LOW,Work",
+                "2,second,false,,HIGH,Home");
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(path.toString());
+
+        manager.updateTask(1, task -> task.setCategory("Home"));
+        assertEquals(2, manager.getTasksByCategory("home").size());
+        manager.updateTask(2, task -> {
+            task.markCompleted(true);
+            task.setText("second, done");
+        });
+        assertEquals(List.of(2), manager.getTasksByCompletion(true).stream().map(Task::getId).toList());
+        assertEquals(List.of(1, 2), manager.getHighestPriorityTasks(2).stream().map(Task::getId).toList().reversed());
+        assertThrows(IllegalArgumentException.class, () -> manager.updateTask(9, task -> task.setText("x")));
+
+        TaskStats stats = manager.getStats();
+        manager.completeTask(1);
+        assertEquals(1, stats.getCompleted());
+        assertEquals(2, manager.getStats().getCompleted());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testReturnedTasksAreSnapshots() throws IOException {
+        Path path = createTempCsv("1,first,false,,LOW,Work");
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(path.toString());
+        manager.setOffHeapText(true);
+
+        Task copy = manager.findTaskById(1);
+        copy.setText("changed copy");
+        assertEquals("first", manager.findTaskById(1).getText());
+        assertNotSame(manager.getTasks().get(0), manager.getTasks().get(0));
+        assertEquals("first", manager.query(new TaskQuery().category("Work")).get(0).getText());
+
+        Task[] held = new Task[1];
+        manager.runBatch(() -> {
+            held[0] = manager.findTaskById(1);
+            held[0].setText("changed in batch");
+        });
+        assertEquals("changed in batch", manager.findTaskById(1).getText());
+        assertThrows(IllegalStateException.class, () -> held[0].markCompleted(true));
+        assertFalse(manager.findTaskById(1).isCompleted());
+        assertTrue(manager.getTasksByCompletion(true).isEmpty());
+        Files.deleteIfExists(path);
+    }
+}
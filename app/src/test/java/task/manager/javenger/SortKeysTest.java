@@ -0,0 +1,69 @@
+package task.manager.javenger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortKeysTest {
+
+    private static List<Task> randomTasks(int count) {
+        Random random = new Random(42);
+        Priority[] priorities = Priority.values();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate due;
+            switch (random.nextInt(6)) {
+                case 0:
+                    due = null;
+                    break;
+                case 1:
+                    due = LocalDate.ofEpochDay(i % 2 == 0 ? Integer.MIN_VALUE + 1 : Integer.MAX_VALUE);
+                    break;
+                default:
+                    due = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(30) - 15);
+            }
+            tasks.add(new Task(i + 1, "Task " + i, false, due, priorities[random.nextInt(priorities.length)], null));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testSortMatchesComparator() {
+        List<Task> tasks = randomTasks(500);
+        for (TaskOrder order : TaskOrder.values()) {
+            if (order == TaskOrder.NONE) {
+                continue;
+            }
+            List<Task> expected = new ArrayList<>(tasks);
+            expected.sort(order.getComparator());
+            assertEquals(expected, SortKeys.sort(tasks, order, false), order.name());
+            assertEquals(expected, SortKeys.sort(tasks, order, true), order.name());
+        }
+    }
+
+    @Test
+    public void testSelectTopMatchesComparator() {
+        List<Task> tasks = randomTasks(500);
+        for (TaskOrder order : TaskOrder.values()) {
+            if (order == TaskOrder.NONE) {
+                continue;
+            }
+            List<Task> expected = new ArrayList<>(tasks);
+            expected.sort(order.getComparator());
+            assertEquals(expected.subList(0, 7), SortKeys.selectTop(tasks, order, 7), order.name());
+            assertEquals(expected, SortKeys.selectTop(tasks, order, 1000), order.name());
+        }
+        assertTrue(SortKeys.selectTop(List.of(), TaskOrder.DUE_DATE, 3).isEmpty());
+    }
+
+    @Test
+    public void testSupports() {
+        assertTrue(SortKeys.supports(TaskOrder.NEXT_DUE, 10));
+        assertFalse(SortKeys.supports(TaskOrder.NONE, 10));
+        assertFalse(SortKeys.supports(TaskOrder.PRIORITY, SortKeys.MAX_SIZE + 1));
+    }
+}
@@ -0,0 +1,35 @@
+package task.manager.javenger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Creates the CSV files the tests load tasks from.
+ */
+final class TaskCsvFiles {
+
+    private TaskCsvFiles() {
+    }
+
+    /**
+     * Creates a temporary CSV file with the header and the given task lines.
+     *
+     * @param lines the task lines, without the header.
+     * @return the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    static Path createTempCsv(String... lines) throws IOException {
+        Path path = Files.createTempFile("tasks", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(String.join(",", "id", "text", "completed", "due", "priority", "category"));
+            writer.newLine();
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+}
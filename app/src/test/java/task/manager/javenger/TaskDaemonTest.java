@@ -0,0 +1,70 @@
+package task.manager.javenger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests for TaskDaemon class.
+ */
+public class TaskDaemonTest {
+
+    @Test
+    void testClientRunsCommandsOnDaemon() throws Exception {
+        Path directory = Files.createTempDirectory("daemon");
+        Path path = directory.resolve("tasks.csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category", "1,first task,false,,LOW,Work"));
+        Path socket = directory.resolve("tasks.sock");
+        ConcurrentTaskManager manager = new ConcurrentTaskManager(path.toString());
+        TaskDaemon daemon = new TaskDaemon(manager, socket);
+        Thread server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        server.start();
+
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream output = new PrintStream(printed, true, StandardCharsets.UTF_8);
+        PrintStream error = new PrintStream(errors, true, StandardCharsets.UTF_8);
+        try (TaskDaemon.Client client = new TaskDaemon.Client(socket)) {
+            assertEquals(1, client.send("--add-Task --Task-text second task --priority 3 --complete-Task 9", output, error));
+            assertEquals(0, client.send("--search second", output, error));
+            assertEquals(1, client.send("--display --limit x", output, error));
+        }
+
+        assertEquals(List.of("Task{id=2, text='second task', completed=false, due='null', priority='HIGH', category='null'}"),
+                printed.toString(StandardCharsets.UTF_8).lines().toList());
+        assertEquals(List.of("Task ID 9 does not exist.", "Invalid limit for --limit option"),
+                errors.toString(StandardCharsets.UTF_8).lines().toList());
+        assertEquals("2,second task,false,,HIGH,", Files.readAllLines(path).get(2));
+        assertThrows(IOException.class, () -> new TaskDaemon(manager, socket));
+
+        daemon.close();
+        server.join(5000);
+        assertFalse(server.isAlive());
+        assertFalse(Files.exists(socket));
+        Files.delete(path);
+        Files.delete(directory);
+    }
+
+    @Test
+    void testErrorMessageIsOneLine() {
+        assertEquals("bad  input here", TaskDaemon.errorMessage(new IllegalArgumentException("bad\n input\r\nhere")));
+        assertEquals("java.lang.NullPointerException", TaskDaemon.errorMessage(new NullPointerException()));
+    }
+}
@@ -0,0 +1,101 @@
+package task.manager.javenger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests for TaskHttpServer class.
+ */
+public class TaskHttpServerTest {
+
+    @Test
+    void testTaskEndpoints() throws IOException, InterruptedException {
+        Path path = Files.createTempFile("http", ".csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category",
+                "1,first task,false,2024/01/03,LOW,Work",
+                "2,second task,false,,HIGH,Home"));
+        TaskHttpServer server = new TaskHttpServer(new ConcurrentTaskManager(path.toString()), new InetSocketAddress("localhost", 0));
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        String base = "http://localhost:" + server.getAddress().getPort();
+        try {
+            HttpResponse<String> added = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"text\": \"say \\\"hi\\\"\", \"priority\": 2, \"due\": \"2024-02-01\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, added.statusCode());
+            assertEquals("{\"id\":3,\"text\":\"say \\\"hi\\\"\",\"completed\":false,\"due\":\"2024-02-01\",\"priority\":\"MEDIUM\",\"category\":null}",
+                    added.body());
+
+            HttpResponse<String> completed = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks/1/complete"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, completed.statusCode());
+
+            HttpResponse<String> listed = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks?completed=false&sort=due&pageSize=1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals("[{\"id\":3,\"text\":\"say \\\"hi\\\"\",\"completed\":false,\"due\":\"2024-02-01\",\"priority\":\"MEDIUM\",\"category\":null}]",
+                    listed.body());
+            String next = listed.headers().firstValue("Next-Cursor").orElseThrow();
+            HttpResponse<String> nextPage = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks?completed=false&sort=due&pageSize=1&after=" + next)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals("[{\"id\":2,\"text\":\"second task\",\"completed\":false,\"due\":null,\"priority\":\"HIGH\",\"category\":\"Home\"}]",
+                    nextPage.body());
+
+            assertEquals(404, client.send(HttpRequest.newBuilder(URI.create(base + "/tasks/9")).build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode());
+            HttpResponse<String> invalid = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks?sort=size")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, invalid.statusCode());
+            assertEquals("{\"error\":\"Invalid sort: size\"}", invalid.body());
+            for (String body : List.of("{\"text\": \"two\\nlines\"}", "{\"text\": \"ok\", \"category\": \"Work,Home\"}")) {
+                HttpResponse<String> rejected = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+                assertEquals(400, rejected.statusCode(), body);
+            }
+
+            HttpResponse<String> stats = client.send(HttpRequest.newBuilder(URI.create(base + "/stats")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(stats.body().startsWith("{\"total\":3,\"completed\":1,\"incomplete\":2,"), stats.body());
+            assertEquals("3,say \"hi\",false,2024/01/02,MEDIUM,", Files.readAllLines(path).get(3));
+        } finally {
+            server.stop(0);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testUnexpectedErrorIsReported() throws IOException, InterruptedException {
+        Path path = Files.createTempFile("http", ".csv");
+        Files.write(path, List.of("id,text,completed,due,priority,category"));
+        TaskManager broken = new ConcurrentTaskManager(path.toString()) {
+            @Override
+            public Task findTaskById(int id) {
+                throw new IllegalStateException("index is broken");
+            }
+        };
+        TaskHttpServer server = new TaskHttpServer(broken, new InetSocketAddress("localhost", 0));
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + server.getAddress().getPort() + "/tasks/1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(500, response.statusCode());
+            assertEquals("{\"error\":\"index is broken\"}", response.body());
+        } finally {
+            server.stop(0);
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package task.manager.javenger;
 
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static task.manager.javenger.TaskCsvFiles.createTempCsv;
 
 import java.nio.file.*;
 import java.io.*;
@@ -194,4 +195,616 @@ class TaskManagerTest {
 
 
 
+    @Test
+    void testGetTopTasks() throws IOException {
+        Path path = createTempCsv(
+                "1,no due,false,,HIGH,Work",
+                "2,late,false,2024/20/03,LOW,Work",
+                "3,early,false,2024/01/03,MEDIUM,Home",
+                "4,early high,false,2024/01/03,HIGH,Home",
+                "5,middle,true,2024/10/03,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+
+        List<Task> nextDue = manager.getNextDueTasks(3);
+        assertEquals(3, nextDue.size());
+        assertEquals(3, nextDue.get(0).getId());
+        assertEquals(4, nextDue.get(1).getId());
+        assertEquals(5, nextDue.get(2).getId());
+
+        List<Task> highest = manager.getHighestPriorityTasks(2);
+        assertEquals(4, highest.get(0).getId());
+        assertEquals(1, highest.get(1).getId());
+
+        List<Task> all = manager.getTopTasks(10, Comparator.comparing(Task::getId).reversed());
+        assertEquals(5, all.size());
+        assertEquals(5, all.get(0).getId());
+
+        assertThrows(IllegalArgumentException.class, () -> manager.getTopTasks(0, Comparator.naturalOrder()));
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testDisplayTasksWithLimit() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/20/03,LOW,Work",
+                "2,second,false,2024/01/03,LOW,Work",
+                "3,third,false,2024/10/03,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+        final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        final PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outContent));
+
+        manager.displayTasks(false, null, true, false, 2);
+        assertTrue(outContent.toString().contains("second") && outContent.toString().contains("third"));
+        assertFalse(outContent.toString().contains("first"));
+        assertTrue(outContent.toString().indexOf("second") < outContent.toString().indexOf("third"));
+        outContent.reset();
+
+        manager.displayTasks(false, null, false, false, 1);
+        assertTrue(outContent.toString().contains("first"));
+        assertFalse(outContent.toString().contains("second"));
+
+        System.setOut(originalOut);
+        assertThrows(IllegalArgumentException.class, () -> manager.displayTasks(false, null, false, false, 0));
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testQueryUsesMostSelectiveIndex() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/20/03,LOW,Work",
+                "2,second,true,2024/01/03,HIGH,Work",
+                "3,third,false,2024/10/03,LOW,Home",
+                "4,fourth,false,,MEDIUM,Work",
+                "5,fifth,false,2024/15/03,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+
+        assertEquals("scan (~5 rows)", manager.explain(new TaskQuery()));
+        assertEquals("category (~1 rows)", manager.explain(new TaskQuery().completed(false).category("Home")));
+        assertEquals("priority (~1 rows)", manager.explain(new TaskQuery().category("Work").priority(Priority.MEDIUM)));
+        assertEquals("due (~2 rows)", manager.explain(new TaskQuery().completed(false)
+                .dueBetween(LocalDate.of(2024, 3, 12), LocalDate.of(2024, 3, 31))));
+
+        List<Task> result = manager.query(new TaskQuery().completed(false).category("Work").priority(Priority.LOW)
+                .orderBy(TaskOrder.DUE_DATE));
+        assertEquals(2, result.size());
+        assertEquals(5, result.get(0).getId());
+        assertEquals(1, result.get(1).getId());
+
+        assertEquals(1, manager.query(new TaskQuery().categoryIgnoreCase("home")).size());
+        assertTrue(manager.query(new TaskQuery().category("home")).isEmpty());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testQueryIndexFollowsTaskChanges() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/20/03,LOW,Work",
+                "2,second,false,2024/01/03,HIGH,Home");
+        TaskManager manager = new TaskManager(path.toString());
+
+        Task task = manager.findTaskById(1);
+        task.setCategory("Home");
+        task.setPriority(Priority.HIGH);
+        task.setDue(LocalDate.of(2024, 3, 2));
+        task.markCompleted(true);
+
+        assertEquals(2, manager.getTasksByCategory("Home").size());
+        assertTrue(manager.getTasksByCategory("Work").isEmpty());
+        assertEquals(2, manager.query(new TaskQuery().priority(Priority.HIGH)).size());
+        assertEquals(List.of(task), manager.query(new TaskQuery().dueBetween(LocalDate.of(2024, 3, 2), null)));
+        assertEquals(List.of(task), manager.getTasksByCompletion(true));
+
+        manager.loadTasksFromCSV();
+        task.setCategory("Detached");
+        assertTrue(manager.getTasksByCategory("Detached").isEmpty());
+        assertEquals(1, manager.getTasksByCategory("Work").size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testDueDateOrderAndWideRangeOnEpochDays() throws IOException {
+        Path path = createTempCsv(
+                "1,undated,false,,LOW,",
+                "2,later,false,2024/20/03,LOW,",
+                "3,sooner,false,2024/01/03,LOW,");
+        TaskManager manager = new TaskManager(path.toString());
+        Task undated = manager.findTaskById(1);
+        Task later = manager.findTaskById(2);
+        Task sooner = manager.findTaskById(3);
+
+        assertEquals(List.of(sooner, later, undated), manager.query(new TaskQuery().orderBy(TaskOrder.DUE_DATE)));
+        assertEquals(List.of(later, sooner), manager.query(new TaskQuery().dueBetween(LocalDate.MIN, LocalDate.MAX)));
+        assertEquals(List.of(later), manager.query(new TaskQuery().dueBetween(LocalDate.of(2024, 3, 2), LocalDate.MAX)));
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testGetPageMatchesFullQueryInEveryOrder() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/20/03,LOW,Work",
+                "2,second,true,2024/01/03,HIGH,Work",
+                "3,third,false,,LOW,Home",
+                "4,fourth,false,2024/01/03,MEDIUM,Work",
+                "5,fifth,false,2024/20/03,HIGH,Work",
+                "6,sixth,false,,MEDIUM,Work",
+                "7,seventh,true,2024/10/03,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+
+        for (TaskOrder order : TaskOrder.values()) {
+            for (TaskQuery query : List.of(new TaskQuery().orderBy(order), new TaskQuery().category("Work").orderBy(order))) {
+                List<Task> expected = manager.query(query);
+                List<Task> paged = new ArrayList<>();
+                String cursor = null;
+                do {
+                    TaskPage page = manager.getPage(query, 2, cursor);
+                    assertTrue(page.getTasks().size() <= 2);
+                    paged.addAll(page.getTasks());
+                    cursor = page.getNextCursor();
+                } while (cursor != null);
+                assertEquals(expected, paged, "order " + order);
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testGetPageInvalidArguments() throws IOException {
+        Path path = createTempCsv("1,first,false,2024/20/03,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> manager.getPage(new TaskQuery(), 0, null));
+        assertThrows(IllegalArgumentException.class, () -> manager.getPage(new TaskQuery().limit(1), 1, null));
+        assertThrows(IllegalArgumentException.class, () -> manager.getPage(new TaskQuery(), 1, "not a cursor"));
+        assertFalse(manager.getPage(new TaskQuery(), 1, null).hasNext());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testSearch() throws IOException {
+        Path path = createTempCsv(
+                "1,Fix Bug 1234 in ZIP code validator,false,,LOW,Work",
+                "2,Create Mock-up for new View,false,,LOW,Work",
+                "3,Fix the mock server,true,,LOW,Home");
+        TaskManager manager = new TaskManager(path.toString());
+
+        assertEquals(List.of(1, 3), manager.search("fix").stream().map(Task::getId).toList());
+        assertEquals(List.of(2, 3), manager.search("MOCK*").stream().map(Task::getId).toList());
+        assertTrue(manager.search("fix view").isEmpty());
+        assertEquals(List.of(3), manager.query(new TaskQuery().text("fix").category("Home")).stream().map(Task::getId).toList());
+        assertEquals("text (~2 rows)", manager.explain(new TaskQuery().text("fix")));
+
+        manager.findTaskById(2).setText("Review pull request");
+        assertEquals(List.of(3), manager.search("mock").stream().map(Task::getId).toList());
+        assertEquals(List.of(2), manager.search("review").stream().map(Task::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> manager.search(" "));
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testOffHeapText() throws IOException {
+        Path path = createTempCsv(
+                "1,Fix Bug 1234 in ZIP code validator,false,,LOW,Work",
+                "2,Create Mock-up for new View,false,,LOW,Work",
+                "3,Café � crème,true,,LOW,Home");
+        TaskManager manager = new TaskManager(path.toString());
+        Task held = manager.findTaskById(3);
+        manager.setOffHeapText(true);
+
+        assertTrue(manager.getTextArena().getLiveBytes() > 0);
+        assertEquals("Café , crème", held.getText());
+        assertEquals(List.of(1), manager.search("fix").stream().map(Task::getId).toList());
+
+        manager.addTask("Fix the mock server");
+        manager.findTaskById(2).setText("Review pull request");
+        manager.updateCSV();
+        assertEquals(List.of(1, 4), manager.search("fix").stream().map(Task::getId).toList());
+        assertEquals("Review pull request", manager.findTaskById(2).getText());
+        assertTrue(manager.getTextArena().getDeadBytes() > 0);
+        manager.compactText();
+        assertEquals(0, manager.getTextArena().getDeadBytes());
+
+        manager.loadTasksFromCSV();
+        assertEquals("Café , crème", held.getText());
+        assertEquals("Fix the mock server", manager.findTaskById(4).getText());
+        assertTrue(Files.readString(path).contains("Review pull request"));
+
+        manager.setOffHeapText(false);
+        assertNull(manager.getTextArena());
+        assertEquals("Review pull request", manager.findTaskById(2).getText());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testCategoriesShareInstances() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,,LOW,Work",
+                "2,second,false,,LOW,Work",
+                "3,third,false,,LOW,work",
+                "4,fourth,false,,LOW,");
+        TaskManager manager = new TaskManager(path.toString());
+
+        assertSame(manager.findTaskById(1).getCategory(), manager.findTaskById(2).getCategory());
+        assertEquals(manager.findTaskById(1).getCategoryCode(), manager.findTaskById(2).getCategoryCode());
+        assertNotEquals(manager.findTaskById(1).getCategoryCode(), manager.findTaskById(3).getCategoryCode());
+        assertEquals("category (~2 rows)", manager.explain(new TaskQuery().category("Work")));
+        assertEquals("category (~3 rows)", manager.explain(new TaskQuery().categoryIgnoreCase("WORK")));
+        assertEquals("category (~0 rows)", manager.explain(new TaskQuery().category("Garden")));
+
+        manager.findTaskById(4).setCategory(new String("Work"));
+        manager.findTaskById(1).setCategory("Home");
+        assertSame(manager.findTaskById(2).getCategory(), manager.findTaskById(4).getCategory());
+        assertEquals(List.of(2, 4), manager.query(new TaskQuery().category("Work")).stream().map(Task::getId).toList());
+        assertEquals(List.of(1), manager.getTasksByCategory("home").stream().map(Task::getId).toList());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testTaskSnapshots() throws IOException, InterruptedException {
+        Path path = createTempCsv(
+                "1,first,false,,LOW,Work",
+                "2,second,false,,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+        List<Task> before = manager.getTasks();
+
+        manager.addTask("third");
+        assertEquals(2, before.size());
+        assertEquals(3, manager.getTasks().size());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(new Task("fourth")));
+
+        List<Throwable> failures = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            try {
+                // every snapshot a reader sees during the reloads holds the whole file
+                for (int i = 0; i < 2000; i++) {
+                    List<Task> snapshot = manager.getTasks();
+                    assertEquals(3, snapshot.size());
+                    for (Task task : snapshot) {
+                        assertNotNull(task.getText());
+                    }
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+        });
+        reader.start();
+        while (reader.isAlive()) {
+            manager.loadTasksFromCSV();
+        }
+        reader.join();
+        assertEquals(List.of(), failures);
+        assertEquals(2, before.size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testChangeEventsAreBatched() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,,LOW,Work",
+                "2,second,false,,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+        List<List<TaskChangeEvent>> batches = new ArrayList<>();
+        TaskChangeListener listener = batches::add;
+        manager.addChangeListener(listener);
+
+        Task first = manager.findTaskById(1);
+        first.setPriority(Priority.MEDIUM);
+        first.setPriority(Priority.HIGH);
+        manager.findTaskById(2).setText("second draft");
+        manager.findTaskById(2).setText("second");
+        manager.completeTask(1);
+        assertEquals(1, batches.size());
+        assertEquals("[TaskChangeEvent{type=FIELD_CHANGED, id=1, field=PRIORITY, oldValue=LOW, newValue=HIGH}, "
+                + "TaskChangeEvent{type=COMPLETED, id=1, field=COMPLETED, oldValue=false, newValue=true}]", batches.get(0).toString());
+
+        manager.addTask("third");
+        assertEquals(2, batches.size());
+        assertEquals(TaskChangeEvent.Type.ADDED, batches.get(1).get(0).getType());
+        manager.findTaskById(3).setCategory("Home");
+        manager.flushChanges();
+        assertEquals(3, batches.size());
+        assertEquals(TaskField.CATEGORY, batches.get(2).get(0).getField());
+        manager.flushChanges();
+        assertEquals(3, batches.size());
+
+        manager.loadTasksFromCSV();
+        assertEquals(4, batches.size());
+        assertEquals("[TaskChangeEvent{type=RELOADED}]", batches.get(3).toString());
+
+        manager.removeChangeListener(listener);
+        manager.completeTask(2);
+        assertEquals(4, batches.size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testChangeWindowFlushesOutsideBatches() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,,LOW,Work",
+                "2,second,false,,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+        List<List<TaskChangeEvent>> batches = new ArrayList<>();
+        manager.addChangeListener(batches::add);
+
+        manager.setChangeWindow(60_000);
+        manager.findTaskById(1).setPriority(Priority.HIGH);
+        assertTrue(batches.isEmpty());
+
+        manager.setChangeWindow(0);
+        manager.findTaskById(2).setPriority(Priority.HIGH);
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        manager.runBatch(() -> {
+            manager.findTaskById(1).setCategory("Home");
+            manager.findTaskById(2).setCategory("Home");
+            assertEquals(1, batches.size());
+        });
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(1).size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testRunBatchWritesOnce() throws IOException {
+        Path path = createTempCsv("1,first,false,,LOW,Work");
+        TaskManager manager = new TaskManager(path.toString());
+        List<List<TaskChangeEvent>> batches = new ArrayList<>();
+        manager.addChangeListener(batches::add);
+
+        manager.runBatch(() -> {
+            for (int i = 0; i < 100; i++) {
+                manager.addTask("task " + i);
+            }
+            manager.completeTask(50);
+            manager.findTaskById(1).setId(500);
+            try {
+                assertEquals(2, Files.readAllLines(path).size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertEquals(102, Files.readAllLines(path).size());
+        assertEquals(1, batches.size());
+        assertFalse(manager.isModified());
+        assertEquals(500, manager.getCurrentMaxID());
+        assertEquals("first", manager.findTaskById(500).getText());
+        assertNull(manager.findTaskById(1));
+        manager.findTaskById(500).setId(1);
+        assertEquals(101, manager.getCurrentMaxID());
+        assertTrue(manager.findTaskById(50).isCompleted());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testSavesOnlyWhatChanged() throws IOException {
+        // a full rewrite spells the priority in upper case, so the case shows which saves rewrote the file
+        Path path = createTempCsv("1,first,false,,low,Work");
+        TaskManager manager = new TaskManager(path.toString());
+        manager.findTaskById(1).setPriority(Priority.LOW);
+        assertFalse(manager.isModified());
+        manager.updateCSV();
+        assertEquals("1,first,false,,low,Work", Files.readAllLines(path).get(1));
+
+        manager.addTask("second");
+        assertFalse(manager.isModified());
+        assertEquals(List.of("id,text,completed,due,priority,category", "1,first,false,,low,Work",
+                "2,second,false,,LOW,"), Files.readAllLines(path));
+
+        manager.findTaskById(2).setCategory("Home");
+        assertTrue(manager.isModified());
+        manager.updateCSV();
+        assertEquals(List.of("id,text,completed,due,priority,category", "1,first,false,,low,Work",
+                "2,second,false,,LOW,Home"), Files.readAllLines(path), "only the lines from the changed task on are written");
+        assertFalse(manager.isModified());
+
+        manager.addTask("third");
+        manager.findTaskById(2).setText("second draft");
+        manager.findTaskById(1).setText("first draft");
+        manager.findTaskById(1).setText("first");
+        manager.updateCSV();
+        assertEquals(List.of("id,text,completed,due,priority,category", "1,first,false,,LOW,Work",
+                "2,second draft,false,,LOW,Home", "3,third,false,,LOW,"), Files.readAllLines(path));
+
+        Files.write(path, List.of("id,text,completed,due,priority,category", "1,first,false,,low,Work"));
+        manager.updateCSV();
+        assertEquals(4, Files.readAllLines(path).size(), "a changed file is rewritten even if the tasks are saved");
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testSaveKeepsLinesBeforeTheFirstChange() throws IOException {
+        Path path = createTempCsv();
+        Files.writeString(path, "id,text,completed,due,priority,category\r\n1,first,false,,low,Work\r\n2,second,false,,low,Work\r\n");
+        TaskManager manager = new TaskManager(path.toString());
+
+        manager.completeTask(2);
+        assertEquals("id,text,completed,due,priority,category\r\n1,first,false,,low,Work\r\n2,second,true,,LOW,Work"
+                + System.lineSeparator(), Files.readString(path));
+
+        Files.writeString(path, "id,text,completed,due,priority,category\r1,first,false,,low,Work\r2,second,true,,LOW,Work\r");
+        manager.reloadIfChanged();
+        manager.completeTask(1);
+        assertEquals(List.of("id,text,completed,due,priority,category", "1,first,true,,LOW,Work", "2,second,true,,LOW,Work"),
+                Files.readAllLines(path), "a file with carriage returns only is rewritten entirely");
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testRunTransactionRollsBack() throws IOException {
+        Path path = createTempCsv("1,first,false,,LOW,Work", "2,second,false,2024/01/02,HIGH,Home");
+        List<String> saved = Files.readAllLines(path);
+        TaskManager manager = new TaskManager(path.toString());
+        List<List<TaskChangeEvent>> batches = new ArrayList<>();
+        manager.addChangeListener(batches::add);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.runTransaction(() -> {
+            manager.findTaskById(1).markCompleted(true);
+            manager.findTaskById(2).setCategory("Work");
+            manager.findTaskById(2).setCategory("Errands");
+            manager.addTask("third", false, null, Priority.HIGH, "Work");
+            manager.completeTask(9);
+        }));
+
+        assertEquals(saved, Files.readAllLines(path));
+        assertFalse(manager.isModified());
+        assertEquals(2, manager.getTasks().size());
+        assertFalse(manager.findTaskById(1).isCompleted());
+        assertEquals("Home", manager.findTaskById(2).getCategory());
+        assertNull(manager.findTaskById(3));
+        assertEquals(2, manager.getCurrentMaxID());
+        assertEquals(2, manager.getStats().getTotal());
+        assertEquals(1, manager.query(new TaskQuery().category("Work")).size());
+        assertEquals(1, manager.query(new TaskQuery().priority(Priority.HIGH)).size());
+        assertTrue(batches.stream().allMatch(List::isEmpty));
+
+        manager.runTransaction(() -> {
+            manager.addTask("third");
+            manager.completeTask(3);
+        });
+        assertEquals(4, Files.readAllLines(path).size());
+        assertTrue(manager.findTaskById(3).isCompleted());
+        assertEquals(List.of(3), manager.query(new TaskQuery().completed(true)).stream().map(Task::getId).toList());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testBulkUpdates() throws IOException {
+        Path path = createTempCsv("1,first,false,2024/01/03,LOW,Sprint", "2,second,true,,LOW,Sprint",
+                "3,third,false,2024/10/03,LOW,Home", "4,fourth,false,,HIGH,Sprint");
+        TaskManager manager = new TaskManager(path.toString());
+
+        assertEquals(List.of(1, 2, 4), manager.select(TaskSelection.parse("4,1-2,2")).stream().map(Task::getId).toList());
+        assertEquals(2, manager.select(TaskSelection.parse("3-999999999")).size());
+        assertEquals(3, manager.shiftDue(TaskSelection.parse("1-3"), 7));
+        assertEquals(LocalDate.of(2024, 3, 8), manager.findTaskById(1).getDue());
+        assertNull(manager.findTaskById(2).getDue());
+        assertEquals(2, manager.completeTasks(new TaskSelection().matching(new TaskQuery().category("Sprint").completed(false))));
+        assertTrue(manager.findTaskById(4).isCompleted());
+        assertFalse(manager.findTaskById(3).isCompleted());
+        manager.setPriority(new TaskSelection().range(1, 3).matching(new TaskQuery().category("Sprint")), Priority.MEDIUM);
+        assertEquals(List.of(1, 2), manager.query(new TaskQuery().priority(Priority.MEDIUM)).stream().map(Task::getId).toList());
+
+        assertThrows(IllegalArgumentException.class, () -> manager.setCategory(TaskSelection.parse("1,9"), "Done"));
+        assertEquals("Sprint", manager.findTaskById(1).getCategory());
+        manager.setCategory(TaskSelection.parse("all"), "Done");
+        assertEquals(4, manager.query(new TaskQuery().category("Done")).size());
+        assertEquals("1,first,true,2024/08/03,MEDIUM,Done", Files.readAllLines(path).get(1));
+        assertThrows(IllegalArgumentException.class, () -> TaskSelection.parse("1,x"));
+        assertThrows(IllegalArgumentException.class, () -> TaskSelection.parse("5-2"));
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testStatsFollowChanges() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2000/01/01,LOW,Work",
+                "2,second,true,2000/01/01,HIGH,Work",
+                "3,third,false,,MEDIUM,");
+        TaskManager manager = new TaskManager(path.toString());
+        TaskStats stats = manager.getStats();
+
+        assertEquals(3, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(1, stats.getOverdue());
+        assertEquals(2, stats.getCount("Work"));
+
+        manager.addTask("fourth", false, LocalDate.of(2000, 1, 2), Priority.HIGH, "Home");
+        manager.completeTask(1);
+        manager.findTaskById(3).setCategory("Home");
+
+        assertEquals(4, stats.getTotal());
+        assertEquals(2, stats.getCompleted());
+        assertEquals(1, stats.getOverdue());
+        assertEquals(2, stats.getCount(Priority.HIGH));
+        assertEquals(2, stats.getCount("Home"));
+        assertEquals(0, stats.getCount((String) null));
+
+        manager.loadTasksFromCSV();
+        assertEquals(4, stats.getTotal());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testQueryCacheInvalidatesOnlyAffectedResults() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/20/03,LOW,A",
+                "2,second,false,2024/01/03,HIGH,A",
+                "3,third,false,2024/10/03,LOW,B");
+        TaskManager manager = new TaskManager(path.toString());
+        QueryCache cache = manager.getQueryCache();
+        TaskQuery queryA = new TaskQuery().category("A").completed(false).orderBy(TaskOrder.DUE_DATE);
+        TaskQuery queryB = new TaskQuery().category("B").completed(false);
+
+        assertEquals(2, manager.query(queryA).size());
+        assertEquals(1, manager.query(queryB).size());
+        long versionB = cache.getVersion(queryB);
+        manager.query(queryA);
+        assertEquals(1, cache.getHits());
+
+        manager.findTaskById(1).markCompleted(true);
+        assertEquals(-1, cache.getVersion(queryA));
+        assertEquals(versionB, cache.getVersion(queryB));
+        assertTrue(manager.getVersion() > versionB);
+        assertEquals(List.of(2), manager.query(queryA).stream().map(Task::getId).toList());
+
+        manager.findTaskById(2).setCategory("B");
+        assertEquals(-1, cache.getVersion(queryA));
+        assertEquals(-1, cache.getVersion(queryB));
+        assertEquals(List.of(2, 3), manager.query(queryB).stream().map(Task::getId).toList());
+
+        manager.addTask("fourth", false, null, null, "B");
+        assertEquals(3, manager.query(queryB).size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testQueryCacheBudget() throws IOException {
+        Path path = createTempCsv(
+                "1,first,false,2024/20/03,LOW,A",
+                "2,second,false,2024/01/03,HIGH,B");
+        TaskManager manager = new TaskManager(path.toString());
+        QueryCache cache = manager.getQueryCache();
+        manager.setQueryCacheBudget(2, 3);
+
+        manager.query(new TaskQuery().category("A"));
+        manager.query(new TaskQuery().category("B"));
+        manager.query(new TaskQuery().priority(Priority.LOW));
+        assertEquals(2, cache.size());
+        manager.query(new TaskQuery());
+        assertEquals(2, cache.size());
+        assertEquals(-1, cache.getVersion(new TaskQuery().category("B")));
+
+        List<Task> result = manager.query(new TaskQuery());
+        result.clear();
+        assertEquals(2, manager.query(new TaskQuery()).size());
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testParallelQueryMatchesSequentialQuery() throws IOException {
+        String[] lines = new String[2000];
+        Priority[] priorities = Priority.values();
+        for (int i = 0; i < lines.length; i++) {
+            String due = (i % 7 == 0) ? "" : String.format("2024/%02d/%02d", i % 28 + 1, i % 12 + 1);
+            lines[i] = (i + 1) + ",task " + i + "," + (i % 3 == 0) + "," + due + "," + priorities[i % 3] + ",C" + (i % 5);
+        }
+        Path path = createTempCsv(lines);
+        TaskManager sequential = new TaskManager(path.toString());
+        TaskManager parallel = new TaskManager(path.toString());
+        parallel.setParallelThreshold(1);
+
+        for (TaskOrder order : TaskOrder.values()) {
+            List<TaskQuery> queries = List.of(new TaskQuery().orderBy(order),
+                    new TaskQuery().completed(false).orderBy(order),
+                    new TaskQuery().category("C3").priority(Priority.HIGH).orderBy(order));
+            for (TaskQuery query : queries) {
+                assertEquals(sequential.query(query).stream().map(Task::getId).toList(),
+                        parallel.query(query).stream().map(Task::getId).toList(), query.toString());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> parallel.setParallelThreshold(0));
+        Files.deleteIfExists(path);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package task.manager.javenger;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskQueryTest {
+
+    @Test
+    public void testEmptyQueryMatchesEveryTask() {
+        TaskQuery query = new TaskQuery();
+        assertTrue(query.matches(new Task(1, "Task 1", true, null, null, null)));
+        assertTrue(query.matches(new Task(2, "Task 2", false, LocalDate.of(2024, 3, 29), Priority.HIGH, "Work")));
+        assertEquals(TaskOrder.NONE, query.getOrder());
+        assertNull(query.getLimit());
+    }
+
+    @Test
+    public void testMatchesCombinedPredicates() {
+        TaskQuery query = new TaskQuery().completed(false).category("Work").priority(Priority.HIGH)
+                .dueBetween(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+        assertTrue(query.matches(new Task(1, "Task 1", false, LocalDate.of(2024, 3, 31), Priority.HIGH, "Work")));
+        assertFalse(query.matches(new Task(2, "Task 2", true, LocalDate.of(2024, 3, 29), Priority.HIGH, "Work")));
+        assertFalse(query.matches(new Task(3, "Task 3", false, LocalDate.of(2024, 3, 29), Priority.HIGH, "work")));
+        assertFalse(query.matches(new Task(4, "Task 4", false, LocalDate.of(2024, 3, 29), Priority.LOW, "Work")));
+        assertFalse(query.matches(new Task(5, "Task 5", false, LocalDate.of(2024, 4, 1), Priority.HIGH, "Work")));
+        assertFalse(query.matches(new Task(6, "Task 6", false, null, Priority.HIGH, "Work")));
+    }
+
+    @Test
+    public void testCategoryIgnoreCase() {
+        TaskQuery query = new TaskQuery().categoryIgnoreCase("work");
+        assertTrue(query.matches(new Task(1, "Task 1", false, null, null, "Work")));
+        assertFalse(query.matches(new Task(2, "Task 2", false, null, null, null)));
+    }
+
+    @Test
+    public void testCategoryResolvedAfterQueryIsBuilt() {
+        // categories first seen after the query was used still match, the query resolves its codes again
+        TaskQuery exact = new TaskQuery().category("Query-Later");
+        TaskQuery ignoringCase = new TaskQuery().categoryIgnoreCase("query-later");
+        assertFalse(exact.matches(new Task(1, "Task 1", false, null, null, "Query-Other")));
+        assertFalse(ignoringCase.matches(new Task(1, "Task 1", false, null, null, "Query-Other")));
+
+        assertTrue(exact.matches(new Task(2, "Task 2", false, null, null, "Query-Later")));
+        assertTrue(ignoringCase.matches(new Task(3, "Task 3", false, null, null, "QUERY-LATER")));
+        assertFalse(exact.matches(new Task(4, "Task 4", false, null, null, "QUERY-LATER")));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskQuery().limit(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaskQuery().dueBetween(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 3, 1)));
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        TaskQuery query1 = new TaskQuery().completed(false).category("Work").orderBy(TaskOrder.DUE_DATE).limit(5);
+        TaskQuery query2 = new TaskQuery().completed(false).category("Work").orderBy(TaskOrder.DUE_DATE).limit(5);
+        assertEquals(query1, query2);
+        assertEquals(query1.hashCode(), query2.hashCode());
+        assertNotEquals(query1, query2.limit(6));
+    }
+}
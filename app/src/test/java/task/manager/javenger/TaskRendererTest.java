@@ -0,0 +1,48 @@
+package task.manager.javenger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tests for TaskRenderer class.
+ */
+public class TaskRendererTest {
+
+    private static final List<Task> TASKS = List.of(
+            new Task(1, "buy milk, eggs", false, LocalDate.of(2024, 3, 9), Priority.HIGH, "Home"),
+            new Task(12, "call \"Bob\"", true, null, null, null));
+
+    private static List<String> render(TaskFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskRenderer renderer = new TaskRenderer(out, format);
+        renderer.render(TASKS);
+        assertEquals(0, out.size());
+        renderer.flush();
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void testPlainMatchesToString() {
+        assertEquals(List.of(TASKS.get(0).toString(), TASKS.get(1).toString()), render(TaskFormat.PLAIN));
+    }
+
+    @Test
+    void testFormats() {
+        assertEquals(List.of(
+                "ID  Text            Completed  Due         Priority  Category",
+                "1   buy milk, eggs  false      2024-03-09  HIGH      Home",
+                "12  call \"Bob\"      true                   LOW       "), render(TaskFormat.TABLE));
+        assertEquals(List.of("id,text,completed,due,priority,category",
+                TASKS.get(0).toCSVLine(), TASKS.get(1).toCSVLine()), render(TaskFormat.CSV));
+        assertEquals(List.of(
+                "{\"id\":1,\"text\":\"buy milk, eggs\",\"completed\":false,\"due\":\"2024-03-09\",\"priority\":\"HIGH\",\"category\":\"Home\"}",
+                "{\"id\":12,\"text\":\"call \\\"Bob\\\"\",\"completed\":true,\"due\":null,\"priority\":\"LOW\",\"category\":null}"),
+                render(TaskFormat.NDJSON));
+    }
+}
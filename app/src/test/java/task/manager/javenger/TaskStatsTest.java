@@ -0,0 +1,92 @@
+package task.manager.javenger;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatsTest {
+
+    private static class MovableClock extends Clock {
+        private LocalDate today;
+
+        MovableClock(LocalDate today) {
+            this.today = today;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return today.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+    }
+
+    @Test
+    public void testAddAndUpdate() {
+        TaskStats stats = new TaskStats(new MovableClock(LocalDate.of(2024, 3, 15)));
+        Task task1 = new Task(1, "Task 1", false, LocalDate.of(2024, 3, 1), Priority.HIGH, "Work");
+        Task task2 = new Task(2, "Task 2", true, LocalDate.of(2024, 3, 2), Priority.LOW, "Work");
+        Task task3 = new Task(3, "Task 3", false, null, null, null);
+        stats.add(task1);
+        stats.add(task2);
+        stats.add(task3);
+
+        assertEquals(3, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(2, stats.getIncomplete());
+        assertEquals(1, stats.getOverdue());
+        assertEquals(2, stats.getCount(Priority.LOW));
+        assertEquals(2, stats.getCount("Work"));
+        assertEquals(1, stats.getCount((String) null));
+
+        task1.markCompleted(true);
+        stats.update(task1, TaskField.COMPLETED, false);
+        task3.setCategory("Home");
+        stats.update(task3, TaskField.CATEGORY, null);
+        task3.setPriority(Priority.MEDIUM);
+        stats.update(task3, TaskField.PRIORITY, Priority.LOW);
+
+        assertEquals(2, stats.getCompleted());
+        assertEquals(0, stats.getOverdue());
+        assertEquals(1, stats.getCount("Home"));
+        assertEquals(0, stats.getCount((String) null));
+        assertEquals(1, stats.getCount(Priority.MEDIUM));
+        assertEquals(1, stats.getCount(Priority.LOW));
+    }
+
+    @Test
+    public void testOverdueFollowsTheDate() {
+        MovableClock clock = new MovableClock(LocalDate.of(2024, 3, 1));
+        TaskStats stats = new TaskStats(clock);
+        Task task = new Task(1, "Task 1", false, LocalDate.of(2024, 3, 10), null, null);
+        stats.add(task);
+        stats.add(new Task(2, "Task 2", false, LocalDate.of(2024, 3, 20), null, null));
+        assertEquals(0, stats.getOverdue());
+
+        clock.today = LocalDate.of(2024, 3, 11);
+        assertEquals(1, stats.getOverdue());
+
+        task.setDue(LocalDate.of(2024, 3, 12));
+        stats.update(task, TaskField.DUE, LocalDate.of(2024, 3, 10));
+        assertEquals(0, stats.getOverdue());
+
+        clock.today = LocalDate.of(2024, 4, 1);
+        assertEquals(2, stats.getOverdue());
+
+        clock.today = LocalDate.of(2024, 3, 15);
+        assertEquals(1, stats.getOverdue());
+    }
+}
@@ -234,4 +234,31 @@ class TaskTest {
         assertTrue(task1.compareTo(task2) > 0);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCsvBreakingCharactersAreRejected() {
+        Task task = new Task(1, "Task 1", false, null, Priority.LOW, "Work");
+        assertThrows(IllegalArgumentException.class, () -> task.setText("two\nlines"));
+        assertThrows(IllegalArgumentException.class, () -> task.setText("carriage\rreturn"));
+        assertThrows(IllegalArgumentException.class, () -> task.setCategory("Work,Home"));
+        assertThrows(IllegalArgumentException.class, () -> task.setCategory("Work\n"));
+        assertEquals("Task 1", task.getText());
+        assertEquals("Work", task.getCategory());
+    }
+
+    @Test
+    public void testCompactDueAndPriority() {
+        Task task = new Task(1, "Task 1", false, LocalDate.of(2024, 3, 29), Priority.HIGH, "Work");
+        assertEquals(LocalDate.of(2024, 3, 29), task.getDue());
+        assertEquals(LocalDate.of(2024, 3, 29).toEpochDay(), task.getDueEpochDay());
+        assertEquals(Priority.HIGH, task.getPriority());
+
+        task.setDue(null);
+        assertNull(task.getDue());
+        assertEquals(Task.NO_DUE_DATE, task.getDueEpochDay());
+        task.setDue(LocalDate.ofEpochDay(Integer.MAX_VALUE));
+        assertEquals(LocalDate.ofEpochDay(Integer.MAX_VALUE), task.getDue());
+        assertThrows(IllegalArgumentException.class, () -> task.setDue(LocalDate.MAX));
+        assertThrows(IllegalArgumentException.class, () -> task.setDue(LocalDate.ofEpochDay(Integer.MIN_VALUE)));
+    }
+
+}
@@ -0,0 +1,50 @@
+package task.manager.javenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskVectorTest {
+
+    private static Task task(int id) {
+        return new Task(id, "Task " + id, false, null, Priority.LOW, null);
+    }
+
+    @Test
+    public void testSnapshotsNeverChange() {
+        TaskVector vector = new TaskVector();
+        List<TaskVector> snapshots = new ArrayList<>();
+        List<Task> expected = new ArrayList<>();
+        for (int id = 1; id <= 5000; id++) {
+            snapshots.add(vector);
+            Task task = task(id);
+            expected.add(task);
+            vector = vector.append(task);
+        }
+        assertEquals(expected, vector);
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(expected.subList(0, i), snapshots.get(i));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> snapshots.get(3).add(task(9)));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshots.get(3).get(3));
+    }
+
+    @Test
+    public void testAppendToOlderSnapshotBranches() {
+        TaskVector base = new TaskVector();
+        for (int id = 1; id <= 1500; id++) {
+            base = base.append(task(id));
+        }
+        TaskVector latest = base.append(task(2000));
+        TaskVector branch = base.append(task(3000));
+
+        assertEquals(1501, latest.size());
+        assertEquals(2000, latest.get(1500).getId());
+        assertEquals(3000, branch.get(1500).getId());
+        assertEquals(1500, base.size());
+        assertEquals(3001, branch.append(task(3001)).get(1501).getId());
+        assertEquals(latest.subList(0, 1500), branch.subList(0, 1500));
+    }
+}
@@ -0,0 +1,50 @@
+package task.manager.javenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextArenaTest {
+
+    @Test
+    public void testPutGetFree() {
+        TextArena arena = new TextArena();
+        int first = arena.put("Fix the zip code validator");
+        int second = arena.put("Café crème, 東京");
+        assertEquals("Fix the zip code validator", arena.get(first));
+        assertEquals("Café crème, 東京", arena.get(second));
+
+        arena.free(first);
+        assertEquals(26, arena.getDeadBytes());
+        int reused = arena.put("Call mum");
+        assertEquals(first, reused);
+        assertEquals("Call mum", arena.get(reused));
+        assertEquals("Café crème, 東京", arena.get(second));
+    }
+
+    @Test
+    public void testGrowAndCompact() {
+        TextArena arena = new TextArena();
+        List<Integer> handles = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            handles.add(arena.put("Task number " + i));
+        }
+        assertTrue(arena.getCapacity() > 64 * 1024);
+        for (int i = 0; i < handles.size(); i += 2) {
+            arena.free(handles.get(i));
+        }
+        long live = arena.getLiveBytes();
+        arena.compact();
+        assertEquals(0, arena.getDeadBytes());
+        assertEquals(live, arena.getLiveBytes());
+        for (int i = 1; i < handles.size(); i += 2) {
+            assertEquals("Task number " + i, arena.get(handles.get(i)));
+        }
+
+        arena.clear();
+        assertEquals(0, arena.getLiveBytes());
+        assertEquals("again", arena.get(arena.put("again")));
+    }
+}
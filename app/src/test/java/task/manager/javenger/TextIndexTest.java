@@ -0,0 +1,65 @@
+package task.manager.javenger;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Set.of("fix", "bug", "1234", "in", "zip", "code"), TextIndex.tokenize("Fix Bug 1234 in ZIP-code, fix"));
+        assertTrue(TextIndex.tokenize(" -- ").isEmpty());
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(List.of("zip", "code*"), TextIndex.parse("ZIP-code*"));
+        assertThrows(IllegalArgumentException.class, () -> TextIndex.parse("  "));
+        assertThrows(IllegalArgumentException.class, () -> TextIndex.parse("*"));
+    }
+
+    @Test
+    public void testSearchTermsAndPrefixes() {
+        TextIndex index = new TextIndex();
+        index.add(0, "Fix Bug 1234 in ZIP code validator");
+        index.add(1, "Create Mock-up for new View");
+        index.add(2, "Fix the mock server");
+
+        assertEquals(bits(0, 2), index.search("fix"));
+        assertEquals(bits(2), index.search("FIX mock"));
+        assertEquals(bits(1, 2), index.search("mo*"));
+        assertEquals(bits(0), index.search("fix val*"));
+        assertEquals(bits(), index.search("fix view"));
+        assertEquals(0, index.estimate("unknown"));
+    }
+
+    @Test
+    public void testUpdate() {
+        TextIndex index = new TextIndex();
+        index.add(0, "old words");
+        index.add(1, "other words");
+        index.update(0, "old words", "new words");
+
+        assertEquals(bits(), index.search("old"));
+        assertEquals(bits(0), index.search("new"));
+        assertEquals(bits(0, 1), index.search("words"));
+    }
+
+    @Test
+    public void testMatches() {
+        assertTrue(TextIndex.matches("bug zip*", "Fix Bug 1234 in ZIP code"));
+        assertFalse(TextIndex.matches("bug mock", "Fix Bug 1234 in ZIP code"));
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}